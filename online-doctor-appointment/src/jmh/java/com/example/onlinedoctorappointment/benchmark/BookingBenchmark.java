@@ -0,0 +1,193 @@
+package com.example.onlinedoctorappointment.benchmark;
+
+import com.example.onlinedoctorappointment.OnlineDoctorAppointmentApplication;
+import com.example.onlinedoctorappointment.dto.ScheduleTemplateRequest;
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.Doctor;
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.service.AppointmentService;
+import com.example.onlinedoctorappointment.service.DoctorService;
+import com.example.onlinedoctorappointment.service.ScheduleTemplateService;
+import com.example.onlinedoctorappointment.service.TimeSlotService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking and availability hot paths, measured through the real Spring services
+ * against the in-memory H2 database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookingBenchmark {
+
+    /** Seeded doctors, each with 4 weeks of Mon-Fri 09:00-17:00 20-minute slots */
+    private static final int SEEDED_DOCTORS = 50;
+
+    @State(Scope.Benchmark)
+    public static class App {
+
+        ConfigurableApplicationContext context;
+        AppointmentService appointmentService;
+        TimeSlotService timeSlotService;
+
+        final AtomicLong nextDoctorId = new AtomicLong(100_000);
+        final AtomicLong nextPatientId = new AtomicLong(100_000);
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(OnlineDoctorAppointmentApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(
+                            "spring.datasource.url=jdbc:h2:mem:benchmark",
+                            "spring.jpa.show-sql=false",
+                            "logging.level.root=WARN")
+                    .run();
+
+            appointmentService = context.getBean(AppointmentService.class);
+            timeSlotService = context.getBean(TimeSlotService.class);
+
+            // Fresh database: the seeded doctors get ids 1..SEEDED_DOCTORS
+            DoctorService doctors = context.getBean(DoctorService.class);
+            ScheduleTemplateService templates = context.getBean(ScheduleTemplateService.class);
+            for (long doctorId = 1; doctorId <= SEEDED_DOCTORS; doctorId++) {
+                doctors.createDoctor(new Doctor("Doctor " + doctorId, "General", null));
+                templates.generate(new ScheduleTemplateRequest(
+                        doctorId,
+                        EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY),
+                        LocalTime.of(9, 0),
+                        LocalTime.of(17, 0),
+                        20,
+                        LocalDate.now().plusDays(1),
+                        4));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        Long createSlot(long doctorId, int hourOffset) {
+            LocalDateTime start = LocalDateTime.now().plusYears(1).plusHours(hourOffset);
+            return timeSlotService.createSlot(doctorId, start, start.plusMinutes(30)).getId();
+        }
+
+        Appointment book(long patientId, Long slotId) {
+            Appointment appointment = new Appointment();
+            appointment.setPatientId(patientId);
+            appointment.setTimeSlotId(slotId);
+            return appointmentService.createAppointment(appointment);
+        }
+    }
+
+    /** Each benchmark thread books on its own doctor's calendar, so threads do not share a lock stripe by design */
+    @State(Scope.Thread)
+    public static class Calendar {
+
+        long patientId;
+        Long slotA;
+        Long slotB;
+
+        @Setup(Level.Trial)
+        public void setup(App app) {
+            long doctorId = app.nextDoctorId.incrementAndGet();
+            patientId = app.nextPatientId.incrementAndGet();
+            slotA = app.createSlot(doctorId, 0);
+            slotB = app.createSlot(doctorId, 1);
+        }
+    }
+
+    /** Cancels what createAppointment booked, outside the measured section */
+    @State(Scope.Thread)
+    public static class BookedByBenchmark {
+
+        Long appointmentId;
+
+        @TearDown(Level.Invocation)
+        public void release(App app) {
+            if (appointmentId != null) {
+                app.appointmentService.cancelAppointment(appointmentId);
+                appointmentId = null;
+            }
+        }
+    }
+
+    /** Books a slot before each invocation, outside the measured section */
+    @State(Scope.Thread)
+    public static class BookedBeforeBenchmark {
+
+        Long appointmentId;
+
+        @Setup(Level.Invocation)
+        public void book(App app, Calendar calendar) {
+            appointmentId = app.book(calendar.patientId, calendar.slotA).getId();
+        }
+    }
+
+    /** Appointment that ping-pongs between the calendar's two slots */
+    @State(Scope.Thread)
+    public static class Rescheduled {
+
+        Long appointmentId;
+        boolean onSlotA;
+
+        @Setup(Level.Trial)
+        public void book(App app, Calendar calendar) {
+            appointmentId = app.book(calendar.patientId, calendar.slotA).getId();
+            onSlotA = true;
+        }
+
+        @TearDown(Level.Trial)
+        public void release(App app) {
+            app.appointmentService.cancelAppointment(appointmentId);
+        }
+    }
+
+    @Benchmark
+    public Appointment createAppointment(App app, Calendar calendar, BookedByBenchmark booked) {
+        Appointment appointment = app.book(calendar.patientId, calendar.slotB);
+        booked.appointmentId = appointment.getId();
+        return appointment;
+    }
+
+    @Benchmark
+    public Appointment cancelAppointment(App app, BookedBeforeBenchmark booked) {
+        return app.appointmentService.cancelAppointment(booked.appointmentId);
+    }
+
+    @Benchmark
+    public Appointment rescheduleAppointment(App app, Calendar calendar, Rescheduled state) {
+        Long target = state.onSlotA ? calendar.slotB : calendar.slotA;
+        Appointment moved = app.appointmentService.rescheduleAppointment(state.appointmentId, target);
+        state.appointmentId = moved.getId();
+        state.onSlotA = !state.onSlotA;
+        return moved;
+    }
+
+    @Benchmark
+    public List<TimeSlot> availableSlotsByDoctor(App app) {
+        long doctorId = ThreadLocalRandom.current().nextLong(1, SEEDED_DOCTORS + 1);
+        return app.timeSlotService.getAvailableSlotsByDoctor(doctorId);
+    }
+
+    @Benchmark
+    public List<TimeSlot> availableSlotsAfter(App app) {
+        LocalDateTime after = LocalDateTime.now().plusDays(ThreadLocalRandom.current().nextInt(1, 28));
+        return app.timeSlotService.getAvailableSlotsAfter(after);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.onlinedoctorappointment.benchmark;
+
+import com.example.onlinedoctorappointment.OnlineDoctorAppointmentApplication;
+import com.example.onlinedoctorappointment.dto.ScheduleTemplateRequest;
+import com.example.onlinedoctorappointment.entity.Doctor;
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.service.DoctorService;
+import com.example.onlinedoctorappointment.service.ScheduleTemplateService;
+import com.example.onlinedoctorappointment.service.TimeSlotService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load test comparing platform-thread and virtual-thread request execution.
+ * Boots the application once per mode and drives
+ * POST /api/appointments and GET /api/timeslots/doctor/{id}/available,
+ * then prints throughput and p50/p99 latency per endpoint.
+ *
+ * Tunables (system properties): load.concurrency (default 400), load.bookings (5000),
+ * load.readSeconds (20), load.tomcatThreads (50, platform mode only).
+ * Virtual-thread mode needs JDK 21+ and is skipped on older runtimes; the project compiles
+ * for Java 17, so run the comparison on a newer JVM with -Dbenchmark.java=/path/to/jdk-21/bin/java.
+ */
+public class BookingLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 400);
+    private static final int BOOKINGS = Integer.getInteger("load.bookings", 5000);
+    private static final int READ_SECONDS = Integer.getInteger("load.readSeconds", 20);
+    private static final int TOMCAT_THREADS = Integer.getInteger("load.tomcatThreads", 50);
+    private static final int DOCTORS = 20;
+
+    public static void main(String[] args) throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %-22s %8s %7s %10s %9s %9s",
+                "mode", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms"));
+
+        report.addAll(run(false));
+        if (Runtime.version().feature() >= 21) {
+            report.addAll(run(true));
+        } else {
+            report.add("virtual   skipped: requires JDK 21+, running on " + Runtime.version());
+        }
+
+        System.out.println();
+        report.forEach(System.out::println);
+    }
+
+    private static List<String> run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+
+        try (ConfigurableApplicationContext context =
+                     new SpringApplicationBuilder(OnlineDoctorAppointmentApplication.class)
+                             .properties(
+                                     "server.port=0",
+                                     "spring.threads.virtual.enabled=" + virtualThreads,
+                                     "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                                     "spring.datasource.url=jdbc:h2:mem:load-" + mode,
+                                     "spring.jpa.show-sql=false",
+                                     "logging.level.root=WARN")
+                             .run()) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            List<Long> slotIds = seed(context);
+
+            // Blocking client workers; the HttpClient keeps its own executor for response handling
+            ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+            HttpClient http = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            try {
+                List<String> lines = new ArrayList<>();
+                lines.add(book(mode, http, clients, baseUrl, slotIds));
+                lines.add(readAvailability(mode, http, clients, baseUrl));
+                return lines;
+            } finally {
+                clients.shutdownNow();
+            }
+        }
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext context) {
+        DoctorService doctors = context.getBean(DoctorService.class);
+        ScheduleTemplateService templates = context.getBean(ScheduleTemplateService.class);
+        TimeSlotService timeSlots = context.getBean(TimeSlotService.class);
+
+        // Fresh database: the seeded doctors get ids 1..DOCTORS
+        List<Long> slotIds = new ArrayList<>();
+        for (long doctorId = 1; doctorId <= DOCTORS; doctorId++) {
+            doctors.createDoctor(new Doctor("Doctor " + doctorId, "General", null));
+            templates.generate(new ScheduleTemplateRequest(
+                    doctorId,
+                    EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY),
+                    LocalTime.of(8, 0),
+                    LocalTime.of(18, 0),
+                    10,
+                    LocalDate.now().plusDays(1),
+                    4));
+            timeSlots.getAvailableSlotsByDoctor(doctorId).stream()
+                    .map(TimeSlot::getId)
+                    .forEach(slotIds::add);
+        }
+        return slotIds;
+    }
+
+    /** Every request books a distinct slot, so failures are real errors, not conflicts */
+    private static String book(String mode, HttpClient http, ExecutorService clients,
+                               String baseUrl, List<Long> slotIds) throws InterruptedException {
+        int total = Math.min(BOOKINGS, slotIds.size());
+        AtomicInteger next = new AtomicInteger();
+        Recorder recorder = new Recorder();
+
+        long started = System.nanoTime();
+        for (int worker = 0; worker < CONCURRENCY; worker++) {
+            clients.execute(() -> {
+                for (int i = next.getAndIncrement(); i < total; i = next.getAndIncrement()) {
+                    String body = "{\"patientId\":" + (1_000_000 + i) + ",\"timeSlotId\":" + slotIds.get(i) + "}";
+                    recorder.send(http, HttpRequest.newBuilder(URI.create(baseUrl + "/api/appointments"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build());
+                }
+                recorder.workerDone();
+            });
+        }
+        recorder.awaitWorkers(CONCURRENCY);
+
+        return recorder.summary(mode, "POST /api/appointments", System.nanoTime() - started);
+    }
+
+    private static String readAvailability(String mode, HttpClient http, ExecutorService clients,
+                                           String baseUrl) throws InterruptedException {
+        Recorder recorder = new Recorder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(READ_SECONDS);
+
+        long started = System.nanoTime();
+        for (int worker = 0; worker < CONCURRENCY; worker++) {
+            clients.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    long doctorId = ThreadLocalRandom.current().nextLong(1, DOCTORS + 1);
+                    recorder.send(http, HttpRequest.newBuilder(
+                                    URI.create(baseUrl + "/api/timeslots/doctor/" + doctorId + "/available"))
+                            .GET()
+                            .build());
+                }
+                recorder.workerDone();
+            });
+        }
+        recorder.awaitWorkers(CONCURRENCY);
+
+        return recorder.summary(mode, "GET .../available", System.nanoTime() - started);
+    }
+
+    /**
+     * Collects per-request latencies from all client workers
+     */
+    private static final class Recorder {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final AtomicInteger finishedWorkers = new AtomicInteger();
+
+        void send(HttpClient http, HttpRequest request) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+            latencies.add(System.nanoTime() - start);
+        }
+
+        void workerDone() {
+            finishedWorkers.incrementAndGet();
+        }
+
+        void awaitWorkers(int workers) throws InterruptedException {
+            while (finishedWorkers.get() < workers) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+        }
+
+        String summary(String mode, String endpoint, long elapsedNanos) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+
+            double seconds = elapsedNanos / 1e9;
+            return String.format("%-9s %-22s %8d %7d %10.1f %9.2f %9.2f",
+                    mode, endpoint, sorted.length, errors.get(), sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.onlinedoctorappointment.benchmark;
+
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the list endpoints' response bodies at increasing sizes.
+ * The mapper is built the same way Spring Boot builds the MVC one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private List<Appointment> appointments;
+    private List<TimeSlot> timeSlots;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        AppointmentStatus[] statuses = AppointmentStatus.values();
+
+        appointments = new ArrayList<>(rows);
+        timeSlots = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime start = base.plusMinutes(20L * i);
+
+            Appointment appointment = new Appointment((long) (i % 200), (long) i, start, statuses[i % statuses.length]);
+            appointment.setTimeSlotId((long) i);
+            appointment.setNote(i % 3 == 0 ? "Follow-up visit" : null);
+            appointments.add(appointment);
+
+            timeSlots.add(new TimeSlot((long) (i % 200), start, start.plusMinutes(20)));
+        }
+    }
+
+    @Benchmark
+    public void serializeAppointments() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), appointments);
+    }
+
+    @Benchmark
+    public void serializeTimeSlots() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), timeSlots);
+    }
+}
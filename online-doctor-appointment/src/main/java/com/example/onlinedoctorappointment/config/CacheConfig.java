@@ -0,0 +1,19 @@
+package com.example.onlinedoctorappointment.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring cache abstraction backed by Caffeine (see spring.cache in application.yaml).
+ * Hit/miss statistics are published as cache.gets metrics by Actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Enabled doctors (single entry) */
+    public static final String AVAILABLE_DOCTORS = "availableDoctors";
+
+    /** Enabled doctors keyed by specialty */
+    public static final String DOCTORS_BY_SPECIALTY = "doctorsBySpecialty";
+}
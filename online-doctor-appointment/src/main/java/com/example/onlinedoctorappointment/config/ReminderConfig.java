@@ -0,0 +1,13 @@
+package com.example.onlinedoctorappointment.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Drives the @Scheduled jobs: reminder polling, archiving and stream heartbeats.
+ * They share the scheduler pool sized by spring.task.scheduling.pool.size.
+ */
+@Configuration
+@EnableScheduling
+public class ReminderConfig {
+}
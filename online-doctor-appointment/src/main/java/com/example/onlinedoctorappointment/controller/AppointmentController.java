@@ -1,9 +1,19 @@
 package com.example.onlinedoctorappointment.controller;
 
+import com.example.onlinedoctorappointment.dto.BulkTransitionResult;
+import com.example.onlinedoctorappointment.dto.CursorPage;
+import com.example.onlinedoctorappointment.dto.PatientOverview;
 import com.example.onlinedoctorappointment.entity.Appointment;
 import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.event.LoggedTransition;
 import com.example.onlinedoctorappointment.service.AppointmentService;
+import com.example.onlinedoctorappointment.service.ExportService;
+import com.example.onlinedoctorappointment.service.PatientOverviewService;
+import com.example.onlinedoctorappointment.service.TransitionLog;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,9 +29,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final ExportService exportService;
+    private final TransitionLog transitionLog;
+    private final PatientOverviewService patientOverviewService;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService,
+                                 ExportService exportService,
+                                 TransitionLog transitionLog,
+                                 PatientOverviewService patientOverviewService) {
         this.appointmentService = appointmentService;
+        this.exportService = exportService;
+        this.transitionLog = transitionLog;
+        this.patientOverviewService = patientOverviewService;
     }
 
     /**
@@ -57,16 +76,43 @@ public class AppointmentController {
     }
 
     /**
-     * Get all appointments
-     * GET /api/appointments
+     * Request body for batch booking
+     */
+    static class BatchAppointmentRequest {
+        public Long patientId;
+        public List<Long> timeSlotIds;
+        public String note;
+    }
+
+    /**
+     * Book several time slots at once (all or nothing)
+     * POST /api/appointments/batch
+     */
+    @Operation(
+            summary = "Book several time slots at once",
+            description = "Patient books multiple time slots in one request; either every slot is booked or none is"
+    )
+    @PostMapping("/batch")
+    public List<Appointment> createAppointments(
+            @RequestBody BatchAppointmentRequest req) {
+
+        return appointmentService.createAppointments(req.patientId, req.timeSlotIds, req.note);
+    }
+
+    /**
+     * Get all appointments (paginated)
+     * GET /api/appointments?cursor=xx&size=50
      */
     @Operation(
             summary = "Get all appointments",
-            description = "Retrieve all appointments in the system"
+            description = "Retrieve appointments one page at a time; pass nextCursor back as cursor to get the next page"
     )
     @GetMapping
-    public List<Appointment> getAllAppointments() {
-        return appointmentService.getAllAppointments();
+    public CursorPage<Appointment> getAllAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+
+        return appointmentService.getAllAppointments(cursor, size);
     }
 
     /**
@@ -95,6 +141,39 @@ public class AppointmentController {
         return appointmentService.approveAppointment(id);
     }
 
+    /**
+     * Request body for bulk approve / reject
+     */
+    static class BulkIdsRequest {
+        public List<Long> ids;
+    }
+
+    /**
+     * Approve many appointments (Doctor / Admin)
+     * PUT /api/appointments/bulk/approve
+     */
+    @Operation(
+            summary = "Approve appointments in bulk",
+            description = "Doctor or administrator approves every listed appointment that is still pending; the result reports success or failure per id"
+    )
+    @PutMapping("/bulk/approve")
+    public BulkTransitionResult approveAppointments(@RequestBody BulkIdsRequest req) {
+        return appointmentService.approveAppointments(req.ids);
+    }
+
+    /**
+     * Reject many appointments (Doctor / Admin)
+     * PUT /api/appointments/bulk/reject
+     */
+    @Operation(
+            summary = "Reject appointments in bulk",
+            description = "Doctor or administrator rejects every listed appointment that is still pending; the result reports success or failure per id"
+    )
+    @PutMapping("/bulk/reject")
+    public BulkTransitionResult rejectAppointments(@RequestBody BulkIdsRequest req) {
+        return appointmentService.rejectAppointments(req.ids);
+    }
+
     /**
      * Reschedule appointment
      * PUT /api/appointments/{id}/reschedule?newTimeSlotId=xx
@@ -112,18 +191,20 @@ public class AppointmentController {
     }
 
     /**
-     * Get appointments by status
-     * GET /api/appointments/status/{status}
+     * Get appointments by status (paginated)
+     * GET /api/appointments/status/{status}?cursor=xx&size=50
      */
     @Operation(
             summary = "Get appointments by status",
-            description = "Retrieve appointments filtered by appointment status"
+            description = "Retrieve appointments filtered by appointment status, one page at a time"
     )
     @GetMapping("/status/{status}")
-    public List<Appointment> getByStatus(
-            @PathVariable AppointmentStatus status) {
+    public CursorPage<Appointment> getByStatus(
+            @PathVariable AppointmentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
 
-        return appointmentService.getAppointmentsByStatus(status);
+        return appointmentService.getAppointmentsByStatus(status, cursor, size);
     }
 
     /**
@@ -131,15 +212,20 @@ public class AppointmentController {
      */
     @Operation(
             summary = "Get upcoming appointments",
-            description = "Retrieve all upcoming appointments with status PENDING or APPROVED"
+            description = "Retrieve upcoming appointments with status PENDING or APPROVED, one page at a time"
     )
     @GetMapping("/upcoming")
-    public List<Appointment> getUpcomingAppointments() {
+    public CursorPage<Appointment> getUpcomingAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+
         return appointmentService.getAppointmentsByStatusList(
                 List.of(
                         AppointmentStatus.PENDING,
                         AppointmentStatus.APPROVED
-                )
+                ),
+                cursor,
+                size
         );
     }
 
@@ -157,20 +243,64 @@ public class AppointmentController {
         return appointmentService.getAppointmentsByPatient(patientId);
     }
 
+    /**
+     * Patient portal overview
+     * GET /api/appointments/patient/{patientId}/overview
+     */
+    @Operation(
+            summary = "Get a patient's appointment overview",
+            description = "Upcoming PENDING or APPROVED appointments ordered by time, plus the number of appointments per status; served from an in-memory per-patient view"
+    )
+    @GetMapping("/patient/{patientId}/overview")
+    public PatientOverview getPatientOverview(@PathVariable Long patientId) {
+        return patientOverviewService.getOverview(patientId);
+    }
+
     /**
      * Get appointment history
      */
     @Operation(
             summary = "Get appointment history",
-            description = "Retrieve historical appointments with status CANCELLED or REJECTED"
+            description = "Retrieve historical appointments with status CANCELLED or REJECTED, including archived ones, one page at a time"
     )
     @GetMapping("/history")
-    public List<Appointment> getHistoryAppointments() {
-        return appointmentService.getAppointmentsByStatusList(
-                List.of(
-                        AppointmentStatus.CANCELLED,
-                        AppointmentStatus.REJECTED
-                )
-        );
+    public CursorPage<Appointment> getHistoryAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+
+        return appointmentService.getHistory(cursor, size);
+    }
+
+    /**
+     * Read the transition event log (paginated by sequence)
+     * GET /api/appointments/events?cursor=xx&size=50
+     */
+    @Operation(
+            summary = "Read appointment transition events",
+            description = "Every committed status transition in order, from the append-only event log; pass nextCursor back as cursor to continue where the last page ended"
+    )
+    @GetMapping("/events")
+    public CursorPage<LoggedTransition> getTransitionEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+
+        CursorPage.checkSize(size);
+        List<LoggedTransition> rows = transitionLog.read(CursorPage.decode(cursor), size + 1);
+        return CursorPage.of(rows, size, LoggedTransition::sequence);
+    }
+
+    /**
+     * Export all appointments as newline-delimited JSON
+     * GET /api/appointments/export
+     */
+    @Operation(
+            summary = "Export all appointments",
+            description = "Stream every appointment as one JSON object per line (application/x-ndjson)"
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAppointments() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::exportAppointments);
     }
 }
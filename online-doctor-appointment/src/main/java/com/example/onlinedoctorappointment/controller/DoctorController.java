@@ -2,7 +2,9 @@ package com.example.onlinedoctorappointment.controller;
 
 import com.example.onlinedoctorappointment.entity.Doctor;
 import com.example.onlinedoctorappointment.service.DoctorService;
+import com.example.onlinedoctorappointment.service.ResourceVersions;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,9 +20,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final ResourceVersions versions;
 
-    public DoctorController(DoctorService doctorService) {
+    public DoctorController(DoctorService doctorService,
+                            ResourceVersions versions) {
         this.doctorService = doctorService;
+        this.versions = versions;
     }
 
     /**
@@ -40,10 +45,13 @@ public class DoctorController {
      */
     @Operation(
             summary = "Get all available doctors",
-            description = "Retrieve a list of all enabled doctors available for appointment"
+            description = "Retrieve a list of all enabled doctors available for appointment; supports If-None-Match"
     )
     @GetMapping
-    public List<Doctor> getAvailableDoctors() {
+    public List<Doctor> getAvailableDoctors(WebRequest request) {
+        if (request.checkNotModified(versions.directoryETag())) {
+            return null;
+        }
         return doctorService.getAvailableDoctors();
     }
 
@@ -52,10 +60,14 @@ public class DoctorController {
      */
     @Operation(
             summary = "Get doctors by specialty",
-            description = "Retrieve doctors filtered by medical specialty"
+            description = "Retrieve doctors filtered by medical specialty; supports If-None-Match"
     )
     @GetMapping("/specialty/{specialty}")
-    public List<Doctor> getDoctorsBySpecialty(@PathVariable String specialty) {
+    public List<Doctor> getDoctorsBySpecialty(@PathVariable String specialty,
+                                              WebRequest request) {
+        if (request.checkNotModified(versions.directoryETag())) {
+            return null;
+        }
         return doctorService.getDoctorsBySpecialty(specialty);
     }
 
@@ -1,10 +1,25 @@
 package com.example.onlinedoctorappointment.controller;
 
+import com.example.onlinedoctorappointment.dto.CursorPage;
+import com.example.onlinedoctorappointment.dto.ScheduleGenerationResult;
+import com.example.onlinedoctorappointment.dto.ScheduleTemplateRequest;
 import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.service.ExportService;
+import com.example.onlinedoctorappointment.service.ResourceVersions;
+import com.example.onlinedoctorappointment.service.ScheduleTemplateService;
+import com.example.onlinedoctorappointment.service.SlotStreamService;
 import com.example.onlinedoctorappointment.service.TimeSlotService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,9 +34,21 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class TimeSlotController {
 
     private final TimeSlotService timeSlotService;
+    private final ExportService exportService;
+    private final ScheduleTemplateService scheduleTemplateService;
+    private final SlotStreamService slotStreamService;
+    private final ResourceVersions versions;
 
-    public TimeSlotController(TimeSlotService timeSlotService) {
+    public TimeSlotController(TimeSlotService timeSlotService,
+                              ExportService exportService,
+                              ScheduleTemplateService scheduleTemplateService,
+                              SlotStreamService slotStreamService,
+                              ResourceVersions versions) {
         this.timeSlotService = timeSlotService;
+        this.exportService = exportService;
+        this.scheduleTemplateService = scheduleTemplateService;
+        this.slotStreamService = slotStreamService;
+        this.versions = versions;
     }
 
     /**
@@ -30,15 +57,45 @@ public class TimeSlotController {
      */
     @Operation(
             summary = "Get available time slots by doctor",
-            description = "Retrieve all available consultation time slots for a specific doctor"
+            description = "Retrieve all available consultation time slots for a specific doctor; supports If-None-Match"
     )
     @GetMapping("/doctor/{doctorId}/available")
     public List<TimeSlot> getAvailableSlotsByDoctor(
-            @PathVariable Long doctorId) {
+            @PathVariable Long doctorId,
+            WebRequest request) {
 
+        if (request.checkNotModified(versions.doctorSlotsETag(doctorId))) {
+            return null;
+        }
         return timeSlotService.getAvailableSlotsByDoctor(doctorId);
     }
 
+    /**
+     * Stream available time slots of a doctor (Server-Sent Events)
+     * GET /api/timeslots/doctor/{doctorId}/stream
+     */
+    @Operation(
+            summary = "Stream available time slots by doctor",
+            description = "Server-Sent Events: a SNAPSHOT of the doctor's available slots, then CREATED / OCCUPIED / RELEASED changes as they are committed"
+    )
+    @GetMapping(value = "/doctor/{doctorId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSlotsByDoctor(@PathVariable Long doctorId) {
+        return slotStreamService.subscribeDoctor(doctorId);
+    }
+
+    /**
+     * Stream available time slots of all doctors in a specialty (Server-Sent Events)
+     * GET /api/timeslots/specialty/{specialty}/stream
+     */
+    @Operation(
+            summary = "Stream available time slots by specialty",
+            description = "Server-Sent Events: one SNAPSHOT per doctor of the specialty, then their slot changes as they are committed"
+    )
+    @GetMapping(value = "/specialty/{specialty}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSlotsBySpecialty(@PathVariable String specialty) {
+        return slotStreamService.subscribeSpecialty(specialty);
+    }
+
     /**
      * Create a new time slot
      * POST /api/timeslots
@@ -53,16 +110,34 @@ public class TimeSlotController {
     }
 
     /**
-     * Get all time slots
-     * GET /api/timeslots
+     * Generate slots from a recurring schedule template
+     * POST /api/timeslots/templates
+     */
+    @Operation(
+            summary = "Generate time slots from a schedule template",
+            description = "Doctor or administrator creates recurring slots, e.g. Mon-Fri 09:00-17:00 in 20-minute slots for 12 weeks"
+    )
+    @PostMapping("/templates")
+    public ScheduleGenerationResult generateFromTemplate(
+            @RequestBody ScheduleTemplateRequest template) {
+
+        return scheduleTemplateService.generate(template);
+    }
+
+    /**
+     * Get all time slots (paginated)
+     * GET /api/timeslots?cursor=xx&size=50
      */
     @Operation(
             summary = "Get all time slots",
-            description = "Retrieve all consultation time slots in the system"
+            description = "Retrieve consultation time slots one page at a time; pass nextCursor back as cursor to get the next page"
     )
     @GetMapping
-    public List<TimeSlot> getAllTimeSlots() {
-        return timeSlotService.getAllTimeSlots();
+    public CursorPage<TimeSlot> getAllTimeSlots(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+
+        return timeSlotService.getAllTimeSlots(cursor, size);
     }
 
     /**
@@ -77,7 +152,53 @@ public class TimeSlotController {
     public List<TimeSlot> getAvailableSlotsAfter(
             @RequestParam String after) {
 
-        LocalDateTime time = LocalDateTime.parse(after);
-        return timeSlotService.getAvailableSlotsAfter(time);
+        return timeSlotService.getAvailableSlotsAfter(parseTime(after));
+    }
+
+    /**
+     * Earliest available time slots across a specialty
+     * GET /api/timeslots/earliest?specialty=Cardiology&after=2025-12-20T00:00:00&limit=10
+     */
+    @Operation(
+            summary = "Find the earliest available time slots for a specialty",
+            description = "Retrieve the first available slots of any enabled doctor in the specialty, ordered by start time; after defaults to now"
+    )
+    @GetMapping("/earliest")
+    public List<TimeSlot> getEarliestAvailableBySpecialty(
+            @RequestParam String specialty,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        LocalDateTime time = after == null ? LocalDateTime.now() : parseTime(after);
+        return timeSlotService.getEarliestAvailableBySpecialty(specialty, time, limit);
+    }
+
+    /**
+     * Export all time slots as newline-delimited JSON
+     * GET /api/timeslots/export
+     */
+    @Operation(
+            summary = "Export all time slots",
+            description = "Stream every time slot as one JSON object per line (application/x-ndjson)"
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTimeSlots() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::exportTimeSlots);
+    }
+
+    /**
+     * ISO-8601 local date-time (e.g. 2025-12-20T00:00:00); anything else is the client's mistake
+     */
+    private static LocalDateTime parseTime(String after) {
+        try {
+            return LocalDateTime.parse(after);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "after must be an ISO date-time like 2025-12-20T00:00:00"
+            );
+        }
     }
 }
@@ -1,8 +1,11 @@
 package com.example.onlinedoctorappointment.controller;
 
+import com.example.onlinedoctorappointment.dto.LoginResponse;
 import com.example.onlinedoctorappointment.entity.User;
 import com.example.onlinedoctorappointment.entity.UserRole;
+import com.example.onlinedoctorappointment.service.SessionTokenService;
 import com.example.onlinedoctorappointment.service.UserService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
 
@@ -25,11 +28,23 @@ public class UserController {
         return userService.register(username, password, role);
     }
 
-    /** Login */
+    /** Login: returns a session token */
     @PostMapping("/login")
-    public User login(@RequestParam String username,
-                      @RequestParam String password) {
+    public LoginResponse login(@RequestParam String username,
+                               @RequestParam String password) {
 
         return userService.login(username, password);
     }
+
+    /** Logout: invalidates the session token */
+    @PostMapping("/logout")
+    public void logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        userService.logout(authorization);
+    }
+
+    /** Current session of the token */
+    @GetMapping("/me")
+    public SessionTokenService.Session me(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        return userService.currentSession(authorization);
+    }
 }
@@ -0,0 +1,86 @@
+package com.example.onlinedoctorappointment.controller;
+
+import com.example.onlinedoctorappointment.entity.WaitlistEntry;
+import com.example.onlinedoctorappointment.service.WaitlistService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(
+        name = "Waitlist",
+        description = "APIs for waiting on a doctor's next freed time slot"
+)
+@RestController
+@RequestMapping("/api/waitlist")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    /**
+     * Request body for joining a waitlist
+     */
+    static class JoinWaitlistRequest {
+        public Long doctorId;
+        public Long patientId;
+        public String note;
+    }
+
+    /**
+     * Join a doctor's waitlist
+     * POST /api/waitlist
+     */
+    @Operation(
+            summary = "Join a doctor's waitlist",
+            description = "Patient queues for the doctor's next cancelled slot; it is booked for them automatically as a PENDING appointment"
+    )
+    @PostMapping
+    public WaitlistEntry join(@RequestBody JoinWaitlistRequest req) {
+        return waitlistService.join(req.doctorId, req.patientId, req.note);
+    }
+
+    /**
+     * Leave a waitlist
+     * DELETE /api/waitlist/{id}
+     */
+    @Operation(
+            summary = "Leave a waitlist",
+            description = "Patient removes their waitlist entry"
+    )
+    @DeleteMapping("/{id}")
+    public void leave(@PathVariable Long id) {
+        waitlistService.leave(id);
+    }
+
+    /**
+     * Get a doctor's waitlist in queue order
+     * GET /api/waitlist/doctor/{doctorId}
+     */
+    @Operation(
+            summary = "Get a doctor's waitlist",
+            description = "Retrieve waiting patients in the order they will receive freed slots"
+    )
+    @GetMapping("/doctor/{doctorId}")
+    public List<WaitlistEntry> getByDoctor(@PathVariable Long doctorId) {
+        return waitlistService.getByDoctor(doctorId);
+    }
+
+    /**
+     * Get a patient's waitlist entries
+     * GET /api/waitlist/patient/{patientId}
+     */
+    @Operation(
+            summary = "Get a patient's waitlist entries",
+            description = "Retrieve all waitlists a patient is currently in"
+    )
+    @GetMapping("/patient/{patientId}")
+    public List<WaitlistEntry> getByPatient(@PathVariable Long patientId) {
+        return waitlistService.getByPatient(patientId);
+    }
+}
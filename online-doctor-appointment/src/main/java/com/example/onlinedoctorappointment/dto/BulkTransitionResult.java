@@ -0,0 +1,27 @@
+package com.example.onlinedoctorappointment.dto;
+
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk approve / reject: one entry per requested id, in request order
+ */
+public record BulkTransitionResult(AppointmentStatus status,
+                                   int updated,
+                                   List<Outcome> results) {
+
+    /**
+     * error is null when the appointment was transitioned
+     */
+    public record Outcome(Long id, boolean success, String error) {
+
+        public static Outcome ok(Long id) {
+            return new Outcome(id, true, null);
+        }
+
+        public static Outcome failed(Long id, String error) {
+            return new Outcome(id, false, error);
+        }
+    }
+}
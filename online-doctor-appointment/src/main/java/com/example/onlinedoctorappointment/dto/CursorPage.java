@@ -0,0 +1,77 @@
+package com.example.onlinedoctorappointment.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of a keyset-paginated listing.
+ * nextCursor is an opaque token for the following page, null on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    /** Page size when the request does not ask for one */
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    /**
+     * Build a page from rows fetched with limit size + 1.
+     * The extra row only tells us whether another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, ToLongFunction<T> keyOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, encode(keyOf.applyAsLong(items.get(size - 1))));
+    }
+
+    /**
+     * Validate the requested page size
+     */
+    public static int checkSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Page size must be between 1 and " + MAX_SIZE
+            );
+        }
+        return size;
+    }
+
+    /**
+     * Decode a cursor into the last seen key; no cursor means start from the beginning.
+     * Anything that is not a cursor we issued (wrong length, negative key) is a 400.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        long key;
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            key = bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : -1;
+        } catch (IllegalArgumentException e) {
+            key = -1;
+        }
+
+        if (key < 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Invalid cursor"
+            );
+        }
+        return key;
+    }
+
+    public static String encode(long key) {
+        byte[] bytes = ByteBuffer.allocate(Long.BYTES).putLong(key).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.onlinedoctorappointment.dto;
+
+import com.example.onlinedoctorappointment.entity.UserRole;
+
+/**
+ * Successful login: an opaque session token to send as "Authorization: Bearer <token>"
+ */
+public record LoginResponse(String token,
+                            long expiresInSeconds,
+                            Long userId,
+                            String username,
+                            UserRole role) {
+}
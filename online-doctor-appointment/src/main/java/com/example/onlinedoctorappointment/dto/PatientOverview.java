@@ -0,0 +1,25 @@
+package com.example.onlinedoctorappointment.dto;
+
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the patient portal shows: upcoming PENDING / APPROVED appointments ordered by time,
+ * and how many appointments the patient has in each status (archived ones included)
+ */
+public record PatientOverview(Long patientId,
+                              List<UpcomingAppointment> upcoming,
+                              Map<AppointmentStatus, Long> counts) {
+
+    public record UpcomingAppointment(Long appointmentId,
+                                      Long doctorId,
+                                      Long timeSlotId,
+                                      @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+                                      LocalDateTime appointmentTime,
+                                      AppointmentStatus status) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.onlinedoctorappointment.dto;
+
+import com.example.onlinedoctorappointment.entity.Appointment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * One reminder for an approved appointment, due leadTime before appointmentTime
+ */
+public record Reminder(Long appointmentId,
+                       Long patientId,
+                       Long doctorId,
+                       LocalDateTime appointmentTime,
+                       Duration leadTime) {
+
+    public static Reminder of(Appointment appointment, Duration leadTime) {
+        return new Reminder(
+                appointment.getId(),
+                appointment.getPatientId(),
+                appointment.getDoctorId(),
+                appointment.getAppointmentTime(),
+                leadTime
+        );
+    }
+
+    /** When the reminder should be sent */
+    public LocalDateTime fireAt() {
+        return appointmentTime.minus(leadTime);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.onlinedoctorappointment.dto;
+
+/**
+ * Outcome of expanding a schedule template into time slots
+ */
+public record ScheduleGenerationResult(Long doctorId,
+                                       int slotsCreated,
+                                       long elapsedMillis,
+                                       double slotsPerSecond) {
+}
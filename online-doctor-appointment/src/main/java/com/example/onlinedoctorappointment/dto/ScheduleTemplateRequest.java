@@ -0,0 +1,19 @@
+package com.example.onlinedoctorappointment.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * Recurring schedule, e.g. MONDAY-FRIDAY 09:00-17:00 in 20-minute slots for 12 weeks.
+ * startDate defaults to today.
+ */
+public record ScheduleTemplateRequest(Long doctorId,
+                                      Set<DayOfWeek> daysOfWeek,
+                                      LocalTime dayStart,
+                                      LocalTime dayEnd,
+                                      Integer slotMinutes,
+                                      LocalDate startDate,
+                                      Integer weeks) {
+}
@@ -2,14 +2,25 @@ package com.example.onlinedoctorappointment.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "appointments")
+@Table(name = "appointments", indexes = {
+        // findByStatus / findByStatusIn, and findReminderWindow (status + time range)
+        @Index(name = "idx_appointments_status_time", columnList = "status, appointment_time"),
+        // findByPatientId (optionally narrowed by status)
+        @Index(name = "idx_appointments_patient_status", columnList = "patient_id, status")
+})
 public class Appointment {
 
+    /** Sequence ids (pooled, 50 per round trip) so batch bookings can be JDBC-batched */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
 
     /** Optional appointment note */
@@ -33,6 +44,14 @@ public class Appointment {
     @Enumerated(EnumType.STRING)
     private AppointmentStatus status;
 
+    /** When the appointment was requested (drives expiry of PENDING requests) */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    /** Optimistic lock: a transition only applies to the state it was checked against */
+    @Version
+    private Long version;
+
     // ===== Constructors =====
 
     public Appointment() {
@@ -54,6 +73,11 @@ public class Appointment {
         return id;
     }
 
+    /** Only for rebuilding archived appointments (see ArchivedAppointment) */
+    void setId(Long id) {
+        this.id = id;
+    }
+
     public Long getDoctorId() {
         return doctorId;
     }
@@ -101,4 +125,19 @@ public class Appointment {
         this.note = note;
     }
 
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
 }
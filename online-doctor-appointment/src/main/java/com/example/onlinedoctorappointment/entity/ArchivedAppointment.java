@@ -0,0 +1,98 @@
+package com.example.onlinedoctorappointment.entity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Finished appointment moved out of the hot appointments table by ArchiveService.
+ * Rows are only ever inserted (insert-select) and read.
+ */
+@Entity
+@Table(name = "appointments_archive", indexes = {
+        // /history: status filter + keyset on id
+        @Index(name = "idx_appointments_archive_status_id", columnList = "status, id"),
+        // Patient overview (loaded once per patient)
+        @Index(name = "idx_appointments_archive_patient", columnList = "patient_id")
+})
+public class ArchivedAppointment {
+
+    /** Original appointment ID, kept so history keysets span both tables */
+    @Id
+    private Long id;
+
+    @Column(length = 500)
+    private String note;
+
+    private Long doctorId;
+
+    private Long patientId;
+
+    private Long timeSlotId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime appointmentTime;
+
+    @Enumerated(EnumType.STRING)
+    private AppointmentStatus status;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    /** Filled in by the database when the row is archived */
+    @Column(insertable = false, updatable = false, columnDefinition = "timestamp default current_timestamp")
+    private LocalDateTime archivedAt;
+
+    protected ArchivedAppointment() {
+    }
+
+    /**
+     * Same shape as a live appointment, for endpoints that list both
+     */
+    public Appointment toAppointment() {
+        Appointment appointment = new Appointment(doctorId, patientId, appointmentTime, status);
+        appointment.setId(id);
+        appointment.setNote(note);
+        appointment.setTimeSlotId(timeSlotId);
+        appointment.setCreatedAt(createdAt);
+        return appointment;
+    }
+
+    // ===== Getters =====
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public Long getTimeSlotId() {
+        return timeSlotId;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public AppointmentStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.onlinedoctorappointment.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Past time slot moved out of the hot time_slots table by ArchiveService.
+ * Rows are only ever inserted (insert-select) and read.
+ */
+@Entity
+@Table(name = "time_slots_archive", indexes = {
+        @Index(name = "idx_time_slots_archive_doctor_start", columnList = "doctor_id, start_time")
+})
+public class ArchivedTimeSlot {
+
+    /** Original slot ID (appointments keep referring to it) */
+    @Id
+    private Long id;
+
+    private Long doctorId;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private boolean available;
+
+    /** Filled in by the database when the row is archived */
+    @Column(insertable = false, updatable = false, columnDefinition = "timestamp default current_timestamp")
+    private LocalDateTime archivedAt;
+
+    protected ArchivedTimeSlot() {
+    }
+
+    // ===== Getters =====
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.onlinedoctorappointment.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctors")
 @Table(name = "doctors")
 public class Doctor {
 
@@ -1,20 +1,32 @@
 package com.example.onlinedoctorappointment.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "time_slots")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "time_slots")
+@Table(name = "time_slots", indexes = {
+        // findByDoctorIdAndAvailableTrue (ordered by start time)
+        @Index(name = "idx_time_slots_doctor_available_start", columnList = "doctor_id, available, start_time"),
+        // findByAvailableTrueAndStartTimeAfter
+        @Index(name = "idx_time_slots_available_start", columnList = "available, start_time")
+})
 public class TimeSlot {
 
+    /** Sequence ids (pooled, 50 per round trip) so slot inserts can be JDBC-batched */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "time_slots_seq")
+    @SequenceGenerator(name = "time_slots_seq", sequenceName = "time_slots_seq", allocationSize = 50)
     private Long id;
 
     /** Belongs to which doctor */
     private Long doctorId;
 
-    /** Start time */
+    /** Start time (kept at the column's microsecond precision, so what is stored is what was set) */
     private LocalDateTime startTime;
 
     /** End time */
@@ -23,12 +35,16 @@ public class TimeSlot {
     /** Whether this slot is still available */
     private boolean available = true;
 
+    /** Optimistic lock: a claim is an UPDATE ... WHERE version = ?, so only one booker can win */
+    @Version
+    private Long version;
+
     public TimeSlot() {}
 
     public TimeSlot(Long doctorId, LocalDateTime startTime, LocalDateTime endTime) {
         this.doctorId = doctorId;
-        this.startTime = startTime;
-        this.endTime = endTime;
+        this.startTime = columnPrecision(startTime);
+        this.endTime = columnPrecision(endTime);
         this.available = true;
     }
 
@@ -51,7 +67,7 @@ public class TimeSlot {
     }
 
     public void setStartTime(LocalDateTime startTime) {
-        this.startTime = startTime;
+        this.startTime = columnPrecision(startTime);
     }
 
     public LocalDateTime getEndTime() {
@@ -59,7 +75,7 @@ public class TimeSlot {
     }
 
     public void setEndTime(LocalDateTime endTime) {
-        this.endTime = endTime;
+        this.endTime = columnPrecision(endTime);
     }
 
     public boolean isAvailable() {
@@ -69,4 +85,8 @@ public class TimeSlot {
     public void setAvailable(boolean available) {
         this.available = available;
     }
+
+    private static LocalDateTime columnPrecision(LocalDateTime time) {
+        return time == null ? null : time.truncatedTo(ChronoUnit.MICROS);
+    }
 }
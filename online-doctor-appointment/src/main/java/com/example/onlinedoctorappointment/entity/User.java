@@ -1,5 +1,6 @@
 package com.example.onlinedoctorappointment.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
 @Entity
@@ -13,6 +14,8 @@ public class User {
     @Column(unique = true, nullable = false)
     private String username;
 
+    /** BCrypt hash; accepted in requests but never written to responses */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String password;
 
@@ -0,0 +1,78 @@
+package com.example.onlinedoctorappointment.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        // findFirstByDoctorIdAndPatientIdNotOrderByIdAsc (head of a doctor's queue)
+        @Index(name = "idx_waitlist_doctor_id", columnList = "doctor_id, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_waitlist_doctor_patient", columnNames = {"doctor_id", "patient_id"})
+})
+public class WaitlistEntry {
+
+    /** Ids are increasing, so ordering by id gives FIFO order */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Doctor whose next freed slot is wanted */
+    private Long doctorId;
+
+    /** Waiting patient */
+    private Long patientId;
+
+    /** Note copied to the appointment on hand-off */
+    private String note;
+
+    /** When the patient joined the queue */
+    private LocalDateTime createdAt;
+
+    public WaitlistEntry() {}
+
+    public WaitlistEntry(Long doctorId, Long patientId, String note) {
+        this.doctorId = doctorId;
+        this.patientId = patientId;
+        this.note = note;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // ===== getters & setters =====
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(Long patientId) {
+        this.patientId = patientId;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.onlinedoctorappointment.event;
+
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Published by AppointmentService for every status change.
+ * from is null when the appointment was just created.
+ * Listeners should use @TransactionalEventListener so they only see committed transitions.
+ */
+public record AppointmentTransitionEvent(Long appointmentId,
+                                         Long patientId,
+                                         Long doctorId,
+                                         Long timeSlotId,
+                                         LocalDateTime appointmentTime,
+                                         AppointmentStatus from,
+                                         AppointmentStatus to,
+                                         Instant occurredAt) {
+
+    /**
+     * Snapshot of an appointment that has just moved from the given status to its current one
+     */
+    public static AppointmentTransitionEvent of(Appointment appointment, AppointmentStatus from) {
+        return new AppointmentTransitionEvent(
+                appointment.getId(),
+                appointment.getPatientId(),
+                appointment.getDoctorId(),
+                appointment.getTimeSlotId(),
+                appointment.getAppointmentTime(),
+                from,
+                appointment.getStatus(),
+                Instant.now()
+        );
+    }
+}
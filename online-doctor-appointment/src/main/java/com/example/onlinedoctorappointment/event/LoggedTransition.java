@@ -0,0 +1,9 @@
+package com.example.onlinedoctorappointment.event;
+
+/**
+ * A transition as read back from the event log, with its position in the log.
+ * Sequences start at 1, increase by one per transition and are never reused.
+ */
+public record LoggedTransition(long sequence,
+                               AppointmentTransitionEvent event) {
+}
@@ -0,0 +1,24 @@
+package com.example.onlinedoctorappointment.event;
+
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+
+import java.util.List;
+
+/**
+ * Published by SlotAvailabilityIndex once a change to a doctor's available slots is committed
+ * (and used as the SNAPSHOT message of slot streams).
+ * Clients apply changes idempotently: CREATED / RELEASED add the slots, OCCUPIED / REMOVED (archived) remove them,
+ * SNAPSHOT replaces everything known about the doctor.
+ */
+public record SlotAvailabilityEvent(Long doctorId,
+                                    Change change,
+                                    List<TimeSlot> slots) {
+
+    public enum Change {
+        SNAPSHOT,
+        CREATED,
+        OCCUPIED,
+        RELEASED,
+        REMOVED
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.onlinedoctorappointment.repository;
+
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.entity.ArchivedAppointment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AppointmentArchiveRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+    // Keyset pagination over archived rows (same cursor as the hot table)
+    List<ArchivedAppointment> findByStatusInAndIdGreaterThanOrderByIdAsc(
+            List<AppointmentStatus> statuses, Long id, Limit limit);
+
+    List<ArchivedAppointment> findByPatientId(Long patientId);
+
+    /**
+     * Copy appointments into the archive in one statement; the caller deletes them in the same transaction
+     */
+    @Modifying
+    @Query("insert into ArchivedAppointment (id, note, doctorId, patientId, timeSlotId, appointmentTime, status, createdAt) "
+            + "select a.id, a.note, a.doctorId, a.patientId, a.timeSlotId, a.appointmentTime, a.status, a.createdAt "
+            + "from Appointment a where a.id in :ids")
+    int copyFromAppointments(@Param("ids") Collection<Long> ids);
+}
@@ -2,9 +2,19 @@ package com.example.onlinedoctorappointment.repository;
 
 import com.example.onlinedoctorappointment.entity.Appointment;
 import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
@@ -13,4 +23,50 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     List<Appointment> findByPatientId(Long patientId);
 
     List<Appointment> findByStatusIn(List<AppointmentStatus> statuses);
+
+    // Keyset pagination: "id > last seen id" with a row limit, never OFFSET
+
+    List<Appointment> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Appointment> findByStatusAndIdGreaterThanOrderByIdAsc(
+            AppointmentStatus status, Long id, Limit limit);
+
+    List<Appointment> findByStatusInAndIdGreaterThanOrderByIdAsc(
+            List<AppointmentStatus> statuses, Long id, Limit limit);
+
+    /**
+     * Appointments in a status with appointmentTime in (from, to], used to load reminders window by window
+     */
+    @Query("select a from Appointment a where a.status = :status "
+            + "and a.appointmentTime > :from and a.appointmentTime <= :to")
+    List<Appointment> findReminderWindow(@Param("status") AppointmentStatus status,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    @Query("select a.doctorId from Appointment a where a.id = :id")
+    Optional<Long> findDoctorIdById(@Param("id") Long id);
+
+    @Query("select distinct a.doctorId from Appointment a where a.id in :ids")
+    List<Long> findDoctorIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Next chunk of finished appointments ready to move to the archive table
+     */
+    @Query("select a.id from Appointment a where a.status in :statuses "
+            + "and a.appointmentTime < :cutoff order by a.id")
+    List<Long> findArchivableIds(@Param("statuses") Collection<AppointmentStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Limit limit);
+
+    /**
+     * Cursor over the whole table for streaming exports; must be consumed inside a transaction.
+     * Bypasses the second-level cache, so an export neither reads nor floods the entity region.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select a from Appointment a order by a.id")
+    Stream<Appointment> streamAll();
 }
@@ -0,0 +1,21 @@
+package com.example.onlinedoctorappointment.repository;
+
+import com.example.onlinedoctorappointment.entity.ArchivedTimeSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+
+public interface TimeSlotArchiveRepository extends JpaRepository<ArchivedTimeSlot, Long> {
+
+    /**
+     * Copy time slots into the archive in one statement; the caller deletes them in the same transaction
+     */
+    @Modifying
+    @Query("insert into ArchivedTimeSlot (id, doctorId, startTime, endTime, available) "
+            + "select s.id, s.doctorId, s.startTime, s.endTime, s.available "
+            + "from TimeSlot s where s.id in :ids")
+    int copyFromTimeSlots(@Param("ids") Collection<Long> ids);
+}
@@ -1,14 +1,88 @@
 package com.example.onlinedoctorappointment.repository;
 
 import com.example.onlinedoctorappointment.entity.TimeSlot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
 
     List<TimeSlot> findByDoctorIdAndAvailableTrue(Long doctorId);
 
     List<TimeSlot> findByAvailableTrueAndStartTimeAfter(LocalDateTime time);
+
+    List<TimeSlot> findByAvailableTrue();
+
+    // Keyset pagination: "id > last seen id" with a row limit, never OFFSET
+    List<TimeSlot> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Occupied slot count per doctor (used once at startup to seed the inventory gauges)
+     */
+    @Query("select s.doctorId as doctorId, count(s) as slots from TimeSlot s "
+            + "where s.available = false group by s.doctorId")
+    List<DoctorSlotCount> countOccupiedByDoctor();
+
+    /**
+     * Start/end of every slot (used once at startup to build the overlap guard)
+     */
+    @Query("select s.doctorId as doctorId, s.startTime as startTime, s.endTime as endTime from TimeSlot s")
+    List<SlotInterval> findAllIntervals();
+
+    @Query("select s.doctorId from TimeSlot s where s.id = :id")
+    Optional<Long> findDoctorIdById(@Param("id") Long id);
+
+    @Query("select distinct s.doctorId from TimeSlot s where s.id in :ids")
+    List<Long> findDoctorIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Next chunk of past slots ready to move to the archive table
+     */
+    @Query("select s.id as id, s.doctorId as doctorId, s.startTime as startTime from TimeSlot s "
+            + "where s.startTime < :cutoff order by s.id")
+    List<SlotRef> findArchivable(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Cursor over the whole table for streaming exports; must be consumed inside a transaction.
+     * Bypasses the second-level cache, so an export neither reads nor floods the entity region.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select s from TimeSlot s order by s.id")
+    Stream<TimeSlot> streamAll();
+
+    interface DoctorSlotCount {
+        Long getDoctorId();
+
+        long getSlots();
+    }
+
+    interface SlotInterval {
+        Long getDoctorId();
+
+        LocalDateTime getStartTime();
+
+        LocalDateTime getEndTime();
+    }
+
+    interface SlotRef {
+        Long getId();
+
+        Long getDoctorId();
+
+        LocalDateTime getStartTime();
+    }
 }
@@ -0,0 +1,21 @@
+package com.example.onlinedoctorappointment.repository;
+
+import com.example.onlinedoctorappointment.entity.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Doctor's queue in FIFO order
+    List<WaitlistEntry> findByDoctorIdOrderByIdAsc(Long doctorId);
+
+    // Queues a patient is waiting in
+    List<WaitlistEntry> findByPatientIdOrderByIdAsc(Long patientId);
+
+    boolean existsByDoctorIdAndPatientId(Long doctorId, Long patientId);
+
+    // Head of the queue, skipping the patient who freed the slot
+    Optional<WaitlistEntry> findFirstByDoctorIdAndPatientIdNotOrderByIdAsc(Long doctorId, Long patientId);
+}
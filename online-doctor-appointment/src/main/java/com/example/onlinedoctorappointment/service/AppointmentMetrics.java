@@ -0,0 +1,51 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.event.AppointmentTransitionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Appointment lifecycle counters: booking conflicts, waitlist hand-offs and committed status transitions
+ */
+@Component
+public class AppointmentMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public AppointmentMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * A booking lost the race for a slot (409)
+     */
+    public void bookingConflict(String operation) {
+        Counter.builder("appointments.booking.conflicts")
+                .description("Bookings rejected because the slot was already taken")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * A freed slot was booked for the next waitlisted patient instead of being released
+     */
+    public void waitlistHandOff() {
+        Counter.builder("appointments.waitlist.handoffs")
+                .description("Freed slots booked directly for a waitlisted patient")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @TransactionalEventListener
+    public void onTransition(AppointmentTransitionEvent event) {
+        Counter.builder("appointments.transitions")
+                .description("Committed appointment status transitions")
+                .tag("from", event.from() == null ? "NEW" : event.from().name())
+                .tag("to", event.to().name())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,29 +1,82 @@
 package com.example.onlinedoctorappointment.service;
 
+import com.example.onlinedoctorappointment.dto.BulkTransitionResult;
+import com.example.onlinedoctorappointment.dto.CursorPage;
 import com.example.onlinedoctorappointment.entity.*;
+import com.example.onlinedoctorappointment.event.AppointmentTransitionEvent;
+import com.example.onlinedoctorappointment.repository.AppointmentArchiveRepository;
 import com.example.onlinedoctorappointment.repository.AppointmentRepository;
 import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.calls", description = "Service method latency")
 public class AppointmentService {
 
+    /** Upper bound of slots in one batch booking (therapy plans book 6-12) */
+    static final int MAX_BATCH_BOOKING = 24;
+
+    /** Upper bound of ids in one bulk approve / reject */
+    static final int MAX_BULK_TRANSITION = 500;
+
+    /** Final states; these appointments show up in the history */
+    static final List<AppointmentStatus> FINISHED = List.of(
+            AppointmentStatus.CANCELLED,
+            AppointmentStatus.REJECTED
+    );
+
     private final AppointmentRepository appointmentRepository;
     private final TimeSlotRepository timeSlotRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final DoctorLockManager lockManager;
+    private final AppointmentMetrics metrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WaitlistService waitlistService;
+    private final AppointmentArchiveRepository archiveRepository;
 
     public AppointmentService(AppointmentRepository appointmentRepository,
-                              TimeSlotRepository timeSlotRepository) {
+                              TimeSlotRepository timeSlotRepository,
+                              SlotAvailabilityIndex availabilityIndex,
+                              DoctorLockManager lockManager,
+                              AppointmentMetrics metrics,
+                              ApplicationEventPublisher eventPublisher,
+                              WaitlistService waitlistService,
+                              AppointmentArchiveRepository archiveRepository) {
         this.appointmentRepository = appointmentRepository;
         this.timeSlotRepository = timeSlotRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.lockManager = lockManager;
+        this.metrics = metrics;
+        this.eventPublisher = eventPublisher;
+        this.waitlistService = waitlistService;
+        this.archiveRepository = archiveRepository;
     }
 
     /**
-     * Create appointment with conflict detection
+     * Create appointment with conflict detection.
+     * The slot is claimed with a versioned update in the same transaction
+     * as the appointment insert, so concurrent bookers can never both win.
      */
+    @Transactional
     public Appointment createAppointment(Appointment appointment) {
 
         // 1. Validate request
@@ -41,20 +94,25 @@ public class AppointmentService {
             );
         }
 
-        // 2. Find time slot
+        // 2. Lock the doctor's calendar, then find the time slot
+        // (loaded under the lock, so it reflects every booking committed before ours)
+        timeSlotRepository.findDoctorIdById(appointment.getTimeSlotId())
+                .ifPresent(lockManager::lockForTransaction);
         TimeSlot slot = timeSlotRepository.findById(appointment.getTimeSlotId())
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "Time slot not found"
                 ));
 
-        // 3. Conflict detection
-        if (!slot.isAvailable()) {
+        // 3. Conflict detection + atomic claim of the time slot
+        if (!slot.isAvailable() || !claimSlots(List.of(slot))) {
+            metrics.bookingConflict("createAppointment");
             throw new ResponseStatusException(
                     HttpStatus.CONFLICT,
                     "Time slot already booked"
             );
         }
+        availabilityIndex.slotOccupied(slot);
 
         // 4. Fill appointment information
         appointment.setDoctorId(slot.getDoctorId());
@@ -63,27 +121,103 @@ public class AppointmentService {
 
         // 5. Save appointment
         Appointment saved = appointmentRepository.save(appointment);
+        publishTransition(saved, null);
+        return saved;
+    }
 
-        // 6. Lock time slot
-        slot.setAvailable(false);
-        timeSlotRepository.save(slot);
+    /**
+     * Book several slots for one patient, all or nothing.
+     * All slots are claimed with one batch of versioned updates and all appointments
+     * are inserted as one JDBC batch; if any slot is taken the whole booking rolls back.
+     */
+    @Transactional
+    public List<Appointment> createAppointments(Long patientId, List<Long> timeSlotIds, String note) {
+
+        // 1. Validate request
+        if (patientId == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "patientId must not be null"
+            );
+        }
+
+        if (timeSlotIds == null || timeSlotIds.isEmpty() || timeSlotIds.stream().anyMatch(Objects::isNull)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "timeSlotIds must not be empty"
+            );
+        }
+
+        if (timeSlotIds.size() > MAX_BATCH_BOOKING) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_BOOKING + " slots can be booked at once"
+            );
+        }
+
+        if (new HashSet<>(timeSlotIds).size() != timeSlotIds.size()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "timeSlotIds must not contain duplicates"
+            );
+        }
+
+        // 2. Lock the doctors' calendars, then find the time slots
+        lockManager.lockForTransaction(timeSlotRepository.findDoctorIdsByIdIn(timeSlotIds));
+        Map<Long, TimeSlot> slots = timeSlotRepository.findAllById(timeSlotIds).stream()
+                .collect(Collectors.toMap(TimeSlot::getId, Function.identity()));
+        if (slots.size() != timeSlotIds.size()) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Time slot not found"
+            );
+        }
 
+        // 3. Conflict detection + atomic claim of every slot
+        if (slots.values().stream().anyMatch(slot -> !slot.isAvailable())
+                || !claimSlots(slots.values())) {
+            metrics.bookingConflict("createAppointments");
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "One or more time slots already booked"
+            );
+        }
+
+        // 4. Build and insert all appointments in one batch
+        List<Appointment> appointments = new ArrayList<>(timeSlotIds.size());
+        for (Long slotId : timeSlotIds) {
+            TimeSlot slot = slots.get(slotId);
+            availabilityIndex.slotOccupied(slot);
+
+            Appointment appointment = new Appointment(
+                    slot.getDoctorId(), patientId, slot.getStartTime(), AppointmentStatus.PENDING);
+            appointment.setTimeSlotId(slotId);
+            appointment.setNote(note);
+            appointments.add(appointment);
+        }
+
+        List<Appointment> saved = appointmentRepository.saveAll(appointments);
+        saved.forEach(appointment -> publishTransition(appointment, null));
         return saved;
     }
 
     /**
-     * Get all appointments
+     * Get all appointments, one page at a time (keyset on id)
      */
-    public List<Appointment> getAllAppointments() {
-        return appointmentRepository.findAll();
+    public CursorPage<Appointment> getAllAppointments(String cursor, int size) {
+        CursorPage.checkSize(size);
+        List<Appointment> rows = appointmentRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decode(cursor), Limit.of(size + 1));
+        return CursorPage.of(rows, size, Appointment::getId);
     }
 
     /**
      * Approve appointment (Doctor / Admin)
      * Only PENDING → APPROVED
      */
+    @Transactional
     public Appointment approveAppointment(Long id) {
-        Appointment appointment = getAppointmentOrThrow(id);
+        Appointment appointment = lockAndGet(id);
 
         if (appointment.getStatus() != AppointmentStatus.PENDING) {
             throw new ResponseStatusException(
@@ -93,16 +227,36 @@ public class AppointmentService {
         }
 
         appointment.setStatus(AppointmentStatus.APPROVED);
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        publishTransition(saved, AppointmentStatus.PENDING);
+        return saved;
+    }
+
+    /**
+     * Bulk approve (Doctor / Admin): PENDING → APPROVED for every listed id that is PENDING
+     */
+    @Transactional
+    public BulkTransitionResult approveAppointments(List<Long> ids) {
+        return transitionPending(ids, AppointmentStatus.APPROVED);
+    }
+
+    /**
+     * Bulk reject (Doctor / Admin): PENDING → REJECTED for every listed id that is PENDING
+     */
+    @Transactional
+    public BulkTransitionResult rejectAppointments(List<Long> ids) {
+        return transitionPending(ids, AppointmentStatus.REJECTED);
     }
 
     /**
      * Cancel appointment (User)
      * PENDING / APPROVED → CANCELLED
-     * Release time slot
+     * Hand the time slot to the next waitlisted patient, or release it
+     * (unless the slot is already gone to the archive)
      */
+    @Transactional
     public Appointment cancelAppointment(Long id) {
-        Appointment appointment = getAppointmentOrThrow(id);
+        Appointment appointment = lockAndGet(id);
 
         if (appointment.getStatus() != AppointmentStatus.PENDING &&
                 appointment.getStatus() != AppointmentStatus.APPROVED) {
@@ -112,26 +266,24 @@ public class AppointmentService {
             );
         }
 
+        AppointmentStatus previous = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CANCELLED);
 
-        TimeSlot slot = timeSlotRepository.findById(appointment.getTimeSlotId())
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Time slot not found"
-                ));
-
-        slot.setAvailable(true);
-        timeSlotRepository.save(slot);
+        Appointment saved = appointmentRepository.save(appointment);
+        publishTransition(saved, previous);
 
-        return appointmentRepository.save(appointment);
+        timeSlotRepository.findById(appointment.getTimeSlotId())
+                .ifPresent(slot -> releaseOrHandOff(slot, appointment.getPatientId()));
+        return saved;
     }
 
     /**
      * Reject appointment (Doctor / Admin)
      * Only PENDING → REJECTED
      */
+    @Transactional
     public Appointment rejectAppointment(Long id) {
-        Appointment appointment = getAppointmentOrThrow(id);
+        Appointment appointment = lockAndGet(id);
 
         if (appointment.getStatus() != AppointmentStatus.PENDING) {
             throw new ResponseStatusException(
@@ -141,15 +293,59 @@ public class AppointmentService {
         }
 
         appointment.setStatus(AppointmentStatus.REJECTED);
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        publishTransition(saved, AppointmentStatus.PENDING);
+        return saved;
+    }
+
+    /**
+     * Auto-reject a PENDING appointment whose TTL ran out (PendingExpiryService)
+     * PENDING → REJECTED, and unlike a manual reject the slot is released
+     * (or handed to the next waitlisted patient).
+     * Returns false if the appointment is gone or no longer PENDING.
+     */
+    @Transactional
+    public boolean expirePendingAppointment(Long id) {
+        Long doctorId = appointmentRepository.findDoctorIdById(id).orElse(null);
+        if (doctorId == null) {
+            return false;
+        }
+        lockManager.lockForTransaction(doctorId);
+
+        Appointment appointment = getAppointmentOrThrow(id);
+        if (appointment.getStatus() != AppointmentStatus.PENDING) {
+            return false;
+        }
+
+        appointment.setStatus(AppointmentStatus.REJECTED);
+        Appointment saved = appointmentRepository.save(appointment);
+        publishTransition(saved, AppointmentStatus.PENDING);
+
+        timeSlotRepository.findById(appointment.getTimeSlotId())
+                .ifPresent(slot -> releaseOrHandOff(slot, appointment.getPatientId()));
+        return true;
     }
 
     /**
      * 2.6 Reschedule appointment
      * PENDING / APPROVED → CANCELLED → new appointment
      */
+    @Transactional
     public Appointment rescheduleAppointment(Long appointmentId, Long newTimeSlotId) {
 
+        // Lock both calendars up front (old and new doctor) in a fixed order
+        Long oldDoctorId = appointmentRepository.findDoctorIdById(appointmentId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Appointment not found"
+                ));
+        Long newDoctorId = timeSlotRepository.findDoctorIdById(newTimeSlotId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Time slot not found"
+                ));
+        lockManager.lockForTransaction(oldDoctorId, newDoctorId);
+
         Appointment oldAppointment = getAppointmentOrThrow(appointmentId);
 
         // 1. Only allow reschedule for PENDING or APPROVED
@@ -162,7 +358,7 @@ public class AppointmentService {
 
         }
 
-        // 2. Cancel old appointment (this releases old time slot)
+        // 2. Cancel old appointment (this releases old time slot or hands it to the waitlist)
         cancelAppointment(appointmentId);
 
         // 3. Create new appointment with new time slot
@@ -174,19 +370,172 @@ public class AppointmentService {
     }
 
     /**
-     * Get appointments by status
+     * Get appointments by status, one page at a time (keyset on id)
      */
-    public List<Appointment> getAppointmentsByStatus(AppointmentStatus status) {
-        return appointmentRepository.findByStatus(status);
+    public CursorPage<Appointment> getAppointmentsByStatus(
+            AppointmentStatus status, String cursor, int size) {
+
+        CursorPage.checkSize(size);
+        List<Appointment> rows = appointmentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                status, CursorPage.decode(cursor), Limit.of(size + 1));
+        return CursorPage.of(rows, size, Appointment::getId);
     }
     public List<Appointment> getAppointmentsByPatient(Long patientId) {
         return appointmentRepository.findByPatientId(patientId);
     }
 
-    public List<Appointment> getAppointmentsByStatusList(
-            List<AppointmentStatus> statuses) {
+    public CursorPage<Appointment> getAppointmentsByStatusList(
+            List<AppointmentStatus> statuses, String cursor, int size) {
+
+        CursorPage.checkSize(size);
+        List<Appointment> rows = appointmentRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(
+                statuses, CursorPage.decode(cursor), Limit.of(size + 1));
+        return CursorPage.of(rows, size, Appointment::getId);
+    }
+
+    /**
+     * CANCELLED / REJECTED appointments from both the hot and the archive table.
+     * Ids are unique across both (rows keep their id when archived), so one keyset
+     * cursor pages through the merge. The hot table is read first: a row archived in
+     * between then shows up twice rather than not at all, and duplicates are dropped.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Appointment> getHistory(String cursor, int size) {
+        CursorPage.checkSize(size);
+        long after = CursorPage.decode(cursor);
+
+        List<Appointment> hot = appointmentRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(
+                FINISHED, after, Limit.of(size + 1));
+        List<ArchivedAppointment> archived = archiveRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(
+                FINISHED, after, Limit.of(size + 1));
+
+        Map<Long, Appointment> merged = new TreeMap<>();
+        hot.forEach(a -> merged.put(a.getId(), a));
+        archived.forEach(a -> merged.putIfAbsent(a.getId(), a.toAppointment()));
+
+        List<Appointment> rows = merged.values().stream()
+                .limit(size + 1)
+                .toList();
+        return CursorPage.of(rows, size, Appointment::getId);
+    }
+
+    /**
+     * A freed future slot goes straight to the oldest waitlisted patient of the doctor
+     * as a new PENDING appointment, so it never becomes visible as available.
+     * Otherwise the slot is released. Caller must hold the doctor's lock.
+     */
+    private void releaseOrHandOff(TimeSlot slot, Long freedByPatientId) {
+        if (slot.getStartTime().isAfter(LocalDateTime.now())) {
+            WaitlistEntry next = waitlistService.takeNext(slot.getDoctorId(), freedByPatientId)
+                    .orElse(null);
+            if (next != null) {
+                Appointment handedOff = new Appointment(
+                        slot.getDoctorId(), next.getPatientId(), slot.getStartTime(), AppointmentStatus.PENDING);
+                handedOff.setTimeSlotId(slot.getId());
+                handedOff.setNote(next.getNote());
+
+                Appointment saved = appointmentRepository.save(handedOff);
+                metrics.waitlistHandOff();
+                publishTransition(saved, null);
+                return;
+            }
+        }
+
+        slot.setAvailable(true);
+        timeSlotRepository.save(slot);
+        availabilityIndex.slotReleased(slot);
+    }
+
+    /**
+     * PENDING → target for every eligible id.
+     * Locks the doctors involved, loads the appointments (usually from the second-level cache)
+     * and flushes the changes as one JDBC batch of versioned updates, which also updates
+     * the cached entries instead of evicting the whole region as a bulk UPDATE would.
+     */
+    private BulkTransitionResult transitionPending(List<Long> ids, AppointmentStatus target) {
+        if (ids == null || ids.isEmpty() || ids.stream().anyMatch(Objects::isNull)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "ids must not be empty"
+            );
+        }
+
+        if (ids.size() > MAX_BULK_TRANSITION) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BULK_TRANSITION + " appointments can be updated at once"
+            );
+        }
 
-        return appointmentRepository.findByStatusIn(statuses);
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        lockManager.lockForTransaction(appointmentRepository.findDoctorIdsByIdIn(distinctIds));
+
+        // Every transition holds its doctor's lock, so this read stays valid until commit
+        Map<Long, Appointment> current = appointmentRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+
+        String notPending = "Only PENDING appointments can be "
+                + (target == AppointmentStatus.APPROVED ? "approved" : "rejected");
+        List<Appointment> updated = new ArrayList<>(distinctIds.size());
+        List<BulkTransitionResult.Outcome> results = new ArrayList<>(distinctIds.size());
+        for (Long id : distinctIds) {
+            Appointment appointment = current.get(id);
+            if (appointment == null) {
+                results.add(BulkTransitionResult.Outcome.failed(id, "Appointment not found"));
+            } else if (appointment.getStatus() != AppointmentStatus.PENDING) {
+                results.add(BulkTransitionResult.Outcome.failed(id, notPending));
+            } else {
+                appointment.setStatus(target);
+                updated.add(appointment);
+                results.add(BulkTransitionResult.Outcome.ok(id));
+            }
+        }
+
+        if (!updated.isEmpty()) {
+            try {
+                appointmentRepository.flush();
+            } catch (ConcurrencyFailureException e) {
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "Appointments changed concurrently, please retry"
+                );
+            }
+            updated.forEach(appointment -> publishTransition(appointment, AppointmentStatus.PENDING));
+        }
+
+        return new BulkTransitionResult(target, updated.size(), results);
+    }
+
+    /**
+     * Mark the (managed) slots taken and flush: one versioned UPDATE per slot, sent as a JDBC batch.
+     * True only if every row still had the version read; a stale version or a lock timeout
+     * on a row counts as losing the race. The flushed state also refreshes the cached slots.
+     */
+    private boolean claimSlots(Collection<TimeSlot> slots) {
+        slots.forEach(slot -> slot.setAvailable(false));
+        try {
+            timeSlotRepository.flush();
+            return true;
+        } catch (ConcurrencyFailureException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Announce a status change; listeners run after commit
+     */
+    private void publishTransition(Appointment appointment, AppointmentStatus from) {
+        eventPublisher.publishEvent(AppointmentTransitionEvent.of(appointment, from));
+    }
+
+    /**
+     * Lock the appointment's doctor, then load it, so the status check
+     * below always sees the latest committed state
+     */
+    private Appointment lockAndGet(Long id) {
+        appointmentRepository.findDoctorIdById(id)
+                .ifPresent(lockManager::lockForTransaction);
+        return getAppointmentOrThrow(id);
     }
 
     /**
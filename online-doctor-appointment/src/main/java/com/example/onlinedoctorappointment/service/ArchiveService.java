@@ -0,0 +1,193 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.repository.AppointmentArchiveRepository;
+import com.example.onlinedoctorappointment.repository.AppointmentRepository;
+import com.example.onlinedoctorappointment.repository.TimeSlotArchiveRepository;
+import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Moves past appointments (APPROVED / CANCELLED / REJECTED) and past time slots older than
+ * appointments.archive.retention into the *_archive tables, so the hot tables and their
+ * indexes only hold live data. Rows keep their ids.
+ * Each chunk is copied (insert-select) and deleted in its own short transaction,
+ * so a run never holds locks on more than chunk-size rows at a time.
+ */
+@Component
+public class ArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveService.class);
+
+    /** PENDING appointments are left for PendingExpiryService, which rejects them first */
+    static final List<AppointmentStatus> ARCHIVABLE = List.of(
+            AppointmentStatus.APPROVED,
+            AppointmentStatus.CANCELLED,
+            AppointmentStatus.REJECTED
+    );
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentArchiveRepository appointmentArchiveRepository;
+    private final TimeSlotRepository timeSlotRepository;
+    private final TimeSlotArchiveRepository timeSlotArchiveRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final SlotOverlapGuard overlapGuard;
+    private final DoctorLockManager lockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int chunkSize;
+    private final Counter archivedAppointments;
+    private final Counter archivedSlots;
+
+    public ArchiveService(AppointmentRepository appointmentRepository,
+                          AppointmentArchiveRepository appointmentArchiveRepository,
+                          TimeSlotRepository timeSlotRepository,
+                          TimeSlotArchiveRepository timeSlotArchiveRepository,
+                          SlotAvailabilityIndex availabilityIndex,
+                          SlotOverlapGuard overlapGuard,
+                          DoctorLockManager lockManager,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${appointments.archive.retention:90d}") Duration retention,
+                          @Value("${appointments.archive.chunk-size:500}") int chunkSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentArchiveRepository = appointmentArchiveRepository;
+        this.timeSlotRepository = timeSlotRepository;
+        this.timeSlotArchiveRepository = timeSlotArchiveRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.overlapGuard = overlapGuard;
+        this.lockManager = lockManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+
+        this.archivedAppointments = Counter.builder("archive.rows")
+                .description("Rows moved to the archive tables")
+                .tag("table", "appointments")
+                .register(meterRegistry);
+        this.archivedSlots = Counter.builder("archive.rows")
+                .description("Rows moved to the archive tables")
+                .tag("table", "time_slots")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archive everything older than the retention period, chunk by chunk
+     */
+    @Scheduled(initialDelayString = "${appointments.archive.interval:PT1H}",
+            fixedDelayString = "${appointments.archive.interval:PT1H}")
+    public void archive() {
+        if (retention.isZero() || retention.isNegative()) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long appointments = drain(() -> archiveAppointments(cutoff));
+        long slots = drain(() -> archiveTimeSlots(cutoff));
+
+        if (appointments > 0 || slots > 0) {
+            log.info("Archived {} appointments and {} time slots older than {}", appointments, slots, cutoff);
+        }
+    }
+
+    /**
+     * Run chunks, one transaction each, until a chunk comes back short
+     */
+    private long drain(Supplier<Integer> chunk) {
+        long total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> chunk.get());
+            total += moved;
+        } while (moved == chunkSize);
+        return total;
+    }
+
+    /**
+     * Appointments this far in the past are not transitioned any more, so no doctor lock is needed
+     */
+    private int archiveAppointments(LocalDateTime cutoff) {
+        List<Long> ids = appointmentRepository.findArchivableIds(ARCHIVABLE, cutoff, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int copied = appointmentArchiveRepository.copyFromAppointments(ids);
+        int deleted = delete(appointmentRepository, ids);
+        checkMoved(copied, deleted);
+
+        archivedAppointments.increment(deleted);
+        return ids.size();
+    }
+
+    /**
+     * Past slots are dropped from the in-memory index and overlap guard once the move commits.
+     * They go whatever their state: an appointment still pointing at one (cancelled or expired
+     * late) just has no slot left to release. The doctors are locked so the move happens
+     * before anyone can create or book on their calendars.
+     */
+    private int archiveTimeSlots(LocalDateTime cutoff) {
+        List<TimeSlotRepository.SlotRef> slots = timeSlotRepository.findArchivable(cutoff, Limit.of(chunkSize));
+        if (slots.isEmpty()) {
+            return 0;
+        }
+
+        lockManager.lockForTransaction(slots.stream()
+                .map(TimeSlotRepository.SlotRef::getDoctorId)
+                .distinct()
+                .toList());
+
+        List<Long> ids = slots.stream().map(TimeSlotRepository.SlotRef::getId).toList();
+        int copied = timeSlotArchiveRepository.copyFromTimeSlots(ids);
+        int deleted = delete(timeSlotRepository, ids);
+        checkMoved(copied, deleted);
+
+        availabilityIndex.slotsArchived(slots);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                slots.forEach(slot -> overlapGuard.slotRemoved(slot.getDoctorId(), slot.getStartTime()));
+            }
+        });
+
+        archivedSlots.increment(deleted);
+        return slots.size();
+    }
+
+    /**
+     * Delete through the entities rather than with a bulk DELETE: the removals are batched all the same,
+     * and only these rows leave the second-level cache instead of the whole region
+     */
+    private static <T> int delete(JpaRepository<T, Long> repository, List<Long> ids) {
+        List<T> rows = repository.findAllById(ids);
+        repository.deleteAll(rows);
+        return rows.size();
+    }
+
+    /**
+     * Roll the chunk back rather than delete rows that did not make it into the archive
+     */
+    private static void checkMoved(int copied, int deleted) {
+        if (copied != deleted) {
+            throw new IllegalStateException(
+                    "Archive copied " + copied + " rows but deleted " + deleted);
+        }
+    }
+}
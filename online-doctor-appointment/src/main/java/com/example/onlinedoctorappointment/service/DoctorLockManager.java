@@ -0,0 +1,120 @@
+package com.example.onlinedoctorappointment.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks keyed by doctor ID.
+ * Appointment state transitions lock their doctor's stripe for the rest of the
+ * current transaction, so only bookings on the same calendar contend with each other.
+ */
+@Component
+public class DoctorLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final Timer[] waitTimers;
+    private final Duration timeout;
+
+    public DoctorLockManager(MeterRegistry meterRegistry,
+                             @Value("${appointments.locks.stripes:64}") int stripeCount,
+                             @Value("${appointments.locks.timeout:5s}") Duration timeout) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("appointments.locks.stripes must be positive");
+        }
+
+        this.stripes = new ReentrantLock[stripeCount];
+        this.waitTimers = new Timer[stripeCount];
+        this.timeout = timeout;
+
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+            waitTimers[i] = Timer.builder("appointments.lock.wait")
+                    .description("Time spent waiting for a doctor lock stripe")
+                    .tag("stripe", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Lock the stripes of the given doctors until the current transaction completes.
+     * Stripes are always taken in ascending order, so multi-doctor transitions
+     * (e.g. reschedule to another doctor) cannot deadlock.
+     */
+    public void lockForTransaction(Long... doctorIds) {
+        lockForTransaction(Arrays.asList(doctorIds));
+    }
+
+    public void lockForTransaction(Collection<Long> doctorIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Doctor locks can only be taken inside a transaction");
+        }
+
+        int[] indexes = doctorIds.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        Deque<ReentrantLock> acquired = new ArrayDeque<>();
+        try {
+            for (int index : indexes) {
+                acquire(index);
+                acquired.push(stripes[index]);
+            }
+        } catch (RuntimeException e) {
+            acquired.forEach(ReentrantLock::unlock);
+            throw e;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                acquired.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+
+    // ===== internal =====
+
+    private void acquire(int index) {
+        ReentrantLock lock = stripes[index];
+        long start = System.nanoTime();
+        boolean locked;
+
+        try {
+            locked = lock.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            locked = false;
+        }
+
+        waitTimers[index].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!locked) {
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Doctor calendar is busy, please retry"
+            );
+        }
+    }
+
+    private int stripeOf(Long doctorId) {
+        return Math.floorMod(Long.hashCode(doctorId) * 0x9E3779B9, stripes.length);
+    }
+}
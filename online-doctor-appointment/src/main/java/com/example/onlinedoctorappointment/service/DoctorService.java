@@ -1,73 +1,101 @@
 package com.example.onlinedoctorappointment.service;
 
+import com.example.onlinedoctorappointment.config.CacheConfig;
 import com.example.onlinedoctorappointment.entity.Doctor;
 import com.example.onlinedoctorappointment.repository.DoctorRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
 import java.util.List;
 
 @Service
+@Timed(value = "service.calls", description = "Service method latency")
 public class DoctorService {
 
     private final DoctorRepository doctorRepository;
+    private final CacheManager cacheManager;
+    private final ResourceVersions versions;
 
-    public DoctorService(DoctorRepository doctorRepository) {
+    public DoctorService(DoctorRepository doctorRepository,
+                         CacheManager cacheManager,
+                         ResourceVersions versions) {
         this.doctorRepository = doctorRepository;
+        this.cacheManager = cacheManager;
+        this.versions = versions;
     }
 
     /**
      * Admin: create doctor
      */
+    @Transactional
     public Doctor createDoctor(Doctor doctor) {
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        evictDirectory(saved.getSpecialty());
+        return saved;
     }
 
     /**
-     * User: view available doctors
+     * User: view available doctors (cached)
      */
+    @Cacheable(cacheNames = CacheConfig.AVAILABLE_DOCTORS, sync = true)
     public List<Doctor> getAvailableDoctors() {
-        return doctorRepository.findByEnabledTrue();
+        return List.copyOf(doctorRepository.findByEnabledTrue());
     }
 
     /**
-     * User: filter by specialty
+     * User: filter by specialty (cached per specialty)
      */
+    @Cacheable(cacheNames = CacheConfig.DOCTORS_BY_SPECIALTY, key = "#specialty", sync = true)
     public List<Doctor> getDoctorsBySpecialty(String specialty) {
-        return doctorRepository.findBySpecialtyAndEnabledTrue(specialty);
+        return List.copyOf(doctorRepository.findBySpecialtyAndEnabledTrue(specialty));
     }
 
     /**
      * Admin: update doctor
      */
+    @Transactional
     public Doctor updateDoctor(Long id, Doctor updatedDoctor) {
         Doctor doctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Doctor not found"));
 
+        String oldSpecialty = doctor.getSpecialty();
+
         doctor.setName(updatedDoctor.getName());
         doctor.setSpecialty(updatedDoctor.getSpecialty());
         doctor.setDescription(updatedDoctor.getDescription());
         doctor.setEnabled(updatedDoctor.isEnabled());
 
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        evictDirectory(oldSpecialty, saved.getSpecialty());
+        return saved;
     }
 
     /**
      * Admin: disable doctor
      */
+    @Transactional
     public Doctor disableDoctor(Long id) {
         Doctor doctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Doctor not found"));
 
         doctor.setEnabled(false);
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        evictDirectory(saved.getSpecialty());
+        return saved;
     }
 
     /**
      * Admin: delete doctor
      */
-
+    @Transactional
     public void deleteDoctor(Long id) {
         Doctor doctor = doctorRepository.findById(id)
                 .orElseThrow(() ->
@@ -78,5 +106,46 @@ public class DoctorService {
                 );
 
         doctorRepository.delete(doctor);
+        evictDirectory(doctor.getSpecialty());
+    }
+
+    /**
+     * Write-through invalidation: drop the enabled-doctor list and
+     * only the specialty lists the changed doctor appears in, then move the directory ETag.
+     * Both happen after the write has committed, so a reader that misses the cache
+     * (or sees the new ETag) always loads the committed directory.
+     */
+    private void evictDirectory(String... specialties) {
+        afterCommit(() -> {
+            Cache available = cacheManager.getCache(CacheConfig.AVAILABLE_DOCTORS);
+            if (available != null) {
+                available.clear();
+            }
+
+            Cache bySpecialty = cacheManager.getCache(CacheConfig.DOCTORS_BY_SPECIALTY);
+            if (bySpecialty != null) {
+                for (String specialty : specialties) {
+                    if (specialty != null) {
+                        bySpecialty.evict(specialty);
+                    }
+                }
+            }
+
+            versions.directoryChanged();
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -0,0 +1,73 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.repository.AppointmentRepository;
+import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables as newline-delimited JSON.
+ * Rows are read through a database cursor and detached once written,
+ * so memory use does not grow with the table size.
+ */
+@Service
+public class ExportService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final TimeSlotRepository timeSlotRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+
+    public ExportService(AppointmentRepository appointmentRepository,
+                         TimeSlotRepository timeSlotRepository,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper) {
+        this.appointmentRepository = appointmentRepository;
+        this.timeSlotRepository = timeSlotRepository;
+        this.entityManager = entityManager;
+        // The servlet stream belongs to the container, never close it per row
+        this.writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Write every appointment as one JSON object per line
+     */
+    @Transactional(readOnly = true)
+    public void exportAppointments(OutputStream out) throws IOException {
+        try (Stream<Appointment> rows = appointmentRepository.streamAll()) {
+            writeNdjson(rows, out);
+        }
+    }
+
+    /**
+     * Write every time slot as one JSON object per line
+     */
+    @Transactional(readOnly = true)
+    public void exportTimeSlots(OutputStream out) throws IOException {
+        try (Stream<TimeSlot> rows = timeSlotRepository.streamAll()) {
+            writeNdjson(rows, out);
+        }
+    }
+
+    private <T> void writeNdjson(Stream<T> rows, OutputStream out) throws IOException {
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            T row = it.next();
+            writer.writeValue(out, row);
+            out.write('\n');
+            entityManager.detach(row);
+        }
+        out.flush();
+    }
+}
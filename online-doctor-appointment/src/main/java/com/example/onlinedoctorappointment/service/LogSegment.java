@@ -0,0 +1,163 @@
+package com.example.onlinedoctorappointment.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped file of the transition log.
+ * Records are [int length][int crc32c][payload], the payload starting with its long sequence.
+ * The file is pre-sized with zeros, so a zero length marks the end of the data;
+ * a torn or corrupt record (bad length or checksum) ends it as well and is cut off on open.
+ */
+final class LogSegment implements Closeable {
+
+    static final String SUFFIX = ".log";
+
+    private static final int HEADER = 8;
+
+    /** Sequence of the first record, also the file name */
+    final long baseSequence;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private long lastSequence;
+
+    private LogSegment(long baseSequence, FileChannel channel, MappedByteBuffer buffer, long lastSequence) {
+        this.baseSequence = baseSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lastSequence = lastSequence;
+    }
+
+    static Path fileName(Path dir, long baseSequence) {
+        return dir.resolve(String.format("%020d%s", baseSequence, SUFFIX));
+    }
+
+    static long baseSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    static boolean isSegment(Path file) {
+        return Files.isRegularFile(file) && file.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    /**
+     * Open (or create) a segment for appending, positioned after its last intact record
+     */
+    static LogSegment open(Path dir, long baseSequence, int size) throws IOException {
+        FileChannel channel = FileChannel.open(fileName(dir, baseSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int capacity = (int) Math.max(size, channel.size());
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+
+            long[] last = {baseSequence - 1};
+            int end = scan(buffer, payload -> {
+                last[0] = payload.getLong(0);
+                return true;
+            });
+
+            // Wipe whatever a crash left behind the last intact record
+            for (int i = end; i < capacity; i++) {
+                if (buffer.get(i) != 0) {
+                    buffer.put(i, (byte) 0);
+                }
+            }
+
+            buffer.position(end);
+            return new LogSegment(baseSequence, channel, buffer, last[0]);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Visit the intact records of a segment file, stopping early when the visitor returns false.
+     * The payload buffer is only valid during the call.
+     */
+    static void read(Path file, Predicate<ByteBuffer> visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), visitor);
+        }
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    boolean isEmpty() {
+        return buffer.position() == 0;
+    }
+
+    /**
+     * Append a record; false if it does not fit and the log has to roll to a new segment.
+     * The length is written last, so a reader never sees a record before its bytes.
+     */
+    boolean append(long sequence, ByteBuffer payload) {
+        int length = payload.remaining();
+        int position = buffer.position();
+        if (position + HEADER + length > buffer.capacity()) {
+            return false;
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        buffer.put(position + HEADER, payload, payload.position(), length);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, length);
+        buffer.position(position + HEADER + length);
+
+        lastSequence = sequence;
+        return true;
+    }
+
+    /**
+     * Flush appended records to disk
+     */
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Returns the offset just after the last intact record visited
+     */
+    private static int scan(ByteBuffer buffer, Predicate<ByteBuffer> visitor) {
+        int position = 0;
+        CRC32C crc = new CRC32C();
+
+        while (position + HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER + length > buffer.capacity()) {
+                break;
+            }
+
+            ByteBuffer payload = buffer.slice(position + HEADER, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+
+            if (!visitor.test(payload)) {
+                return position;
+            }
+            position += HEADER + length;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.dto.Reminder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Default sender, used when no ReminderSender bean is declared:
+ * writes reminders to the log (local development and tests)
+ */
+public class LoggingReminderSender implements ReminderSender {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingReminderSender.class);
+
+    @Override
+    public void send(List<Reminder> reminders) {
+        for (Reminder reminder : reminders) {
+            log.info("Reminder to patient {}: appointment {} with doctor {} at {} (in {})",
+                    reminder.patientId(), reminder.appointmentId(), reminder.doctorId(),
+                    reminder.appointmentTime(), reminder.leadTime());
+        }
+    }
+}
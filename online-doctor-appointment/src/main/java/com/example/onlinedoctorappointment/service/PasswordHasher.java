@@ -0,0 +1,96 @@
+package com.example.onlinedoctorappointment.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BCrypt hashing on a small bounded pool.
+ * At most hash-threads cores are ever spent on hashing; once hash-queue requests
+ * are waiting, further logins get 503 instead of starving booking requests.
+ */
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    public PasswordHasher(WorkerThreads workerThreads,
+                          @Value("${users.password.bcrypt-strength:10}") int strength,
+                          @Value("${users.password.hash-threads:2}") int threads,
+                          @Value("${users.password.hash-queue:64}") int queueSize,
+                          @Value("${users.password.hash-timeout:5s}") Duration timeout) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeout = timeout;
+
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                workerThreads.factory("password-hash"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Salted hash of a new password
+     */
+    public String hash(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a password against a stored hash
+     */
+    public boolean matches(String rawPassword, String hash) {
+        return run(() -> encoder.matches(rawPassword, hash));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ===== internal =====
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw busy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw busy();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static ResponseStatusException busy() {
+        return new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many concurrent logins, please retry"
+        );
+    }
+}
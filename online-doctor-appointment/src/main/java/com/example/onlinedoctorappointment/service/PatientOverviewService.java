@@ -0,0 +1,183 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.dto.PatientOverview;
+import com.example.onlinedoctorappointment.dto.PatientOverview.UpcomingAppointment;
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.event.AppointmentTransitionEvent;
+import com.example.onlinedoctorappointment.repository.AppointmentArchiveRepository;
+import com.example.onlinedoctorappointment.repository.AppointmentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Per-patient read model behind the patient portal.
+ * A patient's view is loaded from the database on first access, then kept current by
+ * committed transitions, so later reads are a map lookup plus the upcoming appointments.
+ * Transitions of one appointment are applied in commit order: they all hold the doctor's
+ * lock, which is released only after the after-commit listeners ran.
+ * Applying a transition sets the appointment's current state, so seeing one twice is harmless.
+ */
+@Service
+public class PatientOverviewService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentArchiveRepository archiveRepository;
+    private final Cache<Long, PatientView> views;
+
+    public PatientOverviewService(AppointmentRepository appointmentRepository,
+                                  AppointmentArchiveRepository archiveRepository,
+                                  @Value("${appointments.patient-views.max-patients:100000}") long maxPatients,
+                                  @Value("${appointments.patient-views.idle-ttl:30m}") Duration idleTtl) {
+        this.appointmentRepository = appointmentRepository;
+        this.archiveRepository = archiveRepository;
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maxPatients)
+                .expireAfterAccess(idleTtl)
+                .build();
+    }
+
+    /**
+     * Upcoming appointments (appointment time not yet passed) and per-status counts of one patient
+     */
+    public PatientOverview getOverview(Long patientId) {
+        PatientView view = views.get(patientId, id -> new PatientView());
+        return view.overview(patientId, LocalDateTime.now(), () -> load(patientId));
+    }
+
+    /**
+     * Views not in memory are skipped; their next load reads the committed state
+     */
+    @TransactionalEventListener
+    public void onTransition(AppointmentTransitionEvent event) {
+        PatientView view = views.getIfPresent(event.patientId());
+        if (view != null) {
+            view.apply(new UpcomingAppointment(
+                    event.appointmentId(),
+                    event.doctorId(),
+                    event.timeSlotId(),
+                    event.appointmentTime(),
+                    event.to()
+            ));
+        }
+    }
+
+    /**
+     * Hot table first, then the archive: a row archived in between is seen twice
+     * (and kept once) rather than missed
+     */
+    private List<UpcomingAppointment> load(Long patientId) {
+        List<UpcomingAppointment> appointments = new ArrayList<>();
+        appointmentRepository.findByPatientId(patientId).forEach(a -> appointments.add(new UpcomingAppointment(
+                a.getId(), a.getDoctorId(), a.getTimeSlotId(), a.getAppointmentTime(), a.getStatus())));
+        archiveRepository.findByPatientId(patientId).forEach(a -> appointments.add(new UpcomingAppointment(
+                a.getId(), a.getDoctorId(), a.getTimeSlotId(), a.getAppointmentTime(), a.getStatus())));
+        return appointments;
+    }
+
+    private static boolean isActive(AppointmentStatus status) {
+        return status == AppointmentStatus.PENDING || status == AppointmentStatus.APPROVED;
+    }
+
+    /**
+     * One patient's appointments: current status per id, active ones ordered by time, and counts.
+     * The first read loads from the database while holding the view's lock, which is a
+     * ReentrantLock so that a virtual request thread is not pinned for the query.
+     */
+    private static final class PatientView {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Map<Long, UpcomingAppointment> byId = new HashMap<>();
+        private final NavigableMap<TimeKey, UpcomingAppointment> active = new TreeMap<>();
+        private final Map<AppointmentStatus, Long> counts = new EnumMap<>(AppointmentStatus.class);
+        private boolean loaded;
+
+        PatientView() {
+            for (AppointmentStatus status : AppointmentStatus.values()) {
+                counts.put(status, 0L);
+            }
+        }
+
+        PatientOverview overview(Long patientId, LocalDateTime now,
+                                 Supplier<List<UpcomingAppointment>> loader) {
+            lock.lock();
+            try {
+                if (!loaded) {
+                    // Duplicates (see load) collapse here, the first one read wins
+                    loader.get().forEach(a -> {
+                        if (!byId.containsKey(a.appointmentId())) {
+                            put(a);
+                        }
+                    });
+                    loaded = true;
+                }
+
+                List<UpcomingAppointment> upcoming = new ArrayList<>(
+                        active.tailMap(new TimeKey(now, Long.MIN_VALUE), true).values());
+                return new PatientOverview(patientId, upcoming, new EnumMap<>(counts));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Before the first load there is nothing to update
+         */
+        void apply(UpcomingAppointment appointment) {
+            lock.lock();
+            try {
+                if (loaded) {
+                    put(appointment);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void put(UpcomingAppointment appointment) {
+            UpcomingAppointment previous = byId.put(appointment.appointmentId(), appointment);
+            if (previous != null) {
+                counts.merge(previous.status(), -1L, Long::sum);
+                if (previous.appointmentTime() != null) {
+                    active.remove(TimeKey.of(previous));
+                }
+            }
+
+            counts.merge(appointment.status(), 1L, Long::sum);
+            if (isActive(appointment.status()) && appointment.appointmentTime() != null) {
+                active.put(TimeKey.of(appointment), appointment);
+            }
+        }
+    }
+
+    /**
+     * Sort key: appointment time, then id to keep equal times distinct
+     */
+    private record TimeKey(LocalDateTime time, long id) implements Comparable<TimeKey> {
+
+        static TimeKey of(UpcomingAppointment appointment) {
+            return new TimeKey(appointment.appointmentTime(), appointment.appointmentId());
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.event.AppointmentTransitionEvent;
+import com.example.onlinedoctorappointment.repository.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Auto-rejects PENDING appointments that nobody approved or rejected within
+ * appointments.pending.ttl, releasing their slot (or handing it to the waitlist).
+ * Each PENDING appointment has one timer in a hierarchical timing wheel:
+ * scheduled when the booking commits, dropped when it leaves PENDING,
+ * and restored once from the database at startup. There is no periodic scan.
+ */
+@Component
+public class PendingExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingExpiryService.class);
+
+    /** Delay before retrying an expiry that failed (e.g. doctor calendar busy) */
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final AppointmentService appointmentService;
+    private final AppointmentRepository appointmentRepository;
+    private final Duration ttl;
+    private final Counter expired;
+    private final WorkerThreads workerThreads;
+
+    /** 1s ticks, 60 buckets per level: 1 min, 1 h, 2.5 days, ... */
+    private final TimingWheel<Long> wheel = new TimingWheel<>(1_000, 60, System.currentTimeMillis());
+
+    /** Appointment ID -> its live timer; anything else popping out of the wheel is stale */
+    private final Map<Long, TimingWheel.Timer<Long>> scheduled = new ConcurrentHashMap<>();
+
+    /** Timers that were already due when scheduled */
+    private final ConcurrentLinkedQueue<TimingWheel.Timer<Long>> due = new ConcurrentLinkedQueue<>();
+
+    private volatile Thread driver;
+
+    public PendingExpiryService(AppointmentService appointmentService,
+                                AppointmentRepository appointmentRepository,
+                                MeterRegistry meterRegistry,
+                                WorkerThreads workerThreads,
+                                @Value("${appointments.pending.ttl:24h}") Duration ttl) {
+        this.appointmentService = appointmentService;
+        this.appointmentRepository = appointmentRepository;
+        this.ttl = ttl;
+        this.workerThreads = workerThreads;
+
+        this.expired = Counter.builder("appointments.pending.expired")
+                .description("PENDING appointments auto-rejected after their TTL")
+                .register(meterRegistry);
+        Gauge.builder("appointments.pending.timers", scheduled, Map::size)
+                .description("PENDING appointments waiting for approval or expiry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restore timers for every PENDING appointment, then start expiring
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled()) {
+            log.info("PENDING appointment expiry disabled (appointments.pending.ttl={})", ttl);
+            return;
+        }
+
+        for (Appointment appointment : appointmentRepository.findByStatus(AppointmentStatus.PENDING)) {
+            LocalDateTime createdAt = appointment.getCreatedAt() != null
+                    ? appointment.getCreatedAt()
+                    : LocalDateTime.now();
+            schedule(appointment.getId(),
+                    createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + ttl.toMillis());
+        }
+
+        driver = workerThreads.start("pending-expiry", this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = driver;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * New bookings start their TTL; approve / reject / cancel / expiry stop it
+     */
+    @TransactionalEventListener
+    public void onTransition(AppointmentTransitionEvent event) {
+        if (!enabled()) {
+            return;
+        }
+
+        if (event.to() == AppointmentStatus.PENDING) {
+            schedule(event.appointmentId(), event.occurredAt().toEpochMilli() + ttl.toMillis());
+        } else if (event.from() == AppointmentStatus.PENDING) {
+            scheduled.remove(event.appointmentId());
+        }
+    }
+
+    // ===== internal =====
+
+    private boolean enabled() {
+        return !ttl.isZero() && !ttl.isNegative();
+    }
+
+    private void schedule(Long appointmentId, long expiresAtMillis) {
+        TimingWheel.Timer<Long> timer = new TimingWheel.Timer<>(appointmentId, expiresAtMillis);
+        scheduled.put(appointmentId, timer);
+        if (!wheel.add(timer)) {
+            due.add(timer);
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // Only collect under the wheel's lock; expiring hits the database
+                List<TimingWheel.Timer<Long>> fired = new ArrayList<>();
+                wheel.advance(200, fired::add);
+
+                for (TimingWheel.Timer<Long> timer = due.poll(); timer != null; timer = due.poll()) {
+                    fired.add(timer);
+                }
+                fired.forEach(this::expire);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("PENDING expiry loop failed", e);
+            }
+        }
+    }
+
+    private void expire(TimingWheel.Timer<Long> timer) {
+        Long appointmentId = timer.payload();
+        if (!scheduled.remove(appointmentId, timer)) {
+            return; // approved, rejected or cancelled meanwhile, or rescheduled
+        }
+
+        try {
+            if (appointmentService.expirePendingAppointment(appointmentId)) {
+                expired.increment();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not expire appointment {}, retrying in {}", appointmentId, RETRY_DELAY, e);
+            schedule(appointmentId, System.currentTimeMillis() + RETRY_DELAY.toMillis());
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.dto.Reminder;
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.event.AppointmentTransitionEvent;
+import com.example.onlinedoctorappointment.repository.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends reminders ahead of APPROVED appointments (24h and 1h by default).
+ * Only reminders due within the next window are kept in memory, in a queue
+ * ordered by fire time; the window is extended with one range query per lead time,
+ * and approve / cancel / reschedule transitions add or remove reminders as they commit.
+ * Due reminders are sent in batches on a dedicated single-thread executor.
+ * The queue is guarded by a ReentrantLock rather than a monitor, so virtual threads
+ * (spring.threads.virtual.enabled) never pin their carrier on it.
+ * Reminders that fell due while the application was down are not sent.
+ */
+@Component
+public class ReminderDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderDispatcher.class);
+
+    private static final Comparator<Reminder> BY_FIRE_TIME = Comparator
+            .comparing(Reminder::fireAt)
+            .thenComparing(Reminder::appointmentId)
+            .thenComparing(Reminder::leadTime);
+
+    private final AppointmentRepository appointmentRepository;
+    private final ReminderSender sender;
+    private final List<Duration> leadTimes;
+    private final Duration window;
+    private final int batchSize;
+    private final ThreadPoolExecutor executor;
+    private final Counter sent;
+    private final Counter failed;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Pending reminders ordered by fire time (guarded by lock) */
+    private final TreeSet<Reminder> queue = new TreeSet<>(BY_FIRE_TIME);
+
+    /** Appointment ID -> its pending reminders, for removal on cancel (guarded by lock) */
+    private final Map<Long, List<Reminder>> byAppointment = new HashMap<>();
+
+    /** Every reminder firing at or before this time is in the queue (guarded by lock) */
+    private LocalDateTime horizon;
+
+    public ReminderDispatcher(AppointmentRepository appointmentRepository,
+                              ObjectProvider<ReminderSender> senders,
+                              MeterRegistry meterRegistry,
+                              WorkerThreads workerThreads,
+                              @Value("${appointments.reminders.lead-times:24h,1h}") List<Duration> leadTimes,
+                              @Value("${appointments.reminders.window:1h}") Duration window,
+                              @Value("${appointments.reminders.batch-size:100}") int batchSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.sender = senders.getIfAvailable(LoggingReminderSender::new);
+        this.leadTimes = List.copyOf(leadTimes);
+        this.window = window;
+        this.batchSize = batchSize;
+
+        // One sender thread; a full queue pushes delivery back onto the scheduler thread
+        this.executor = new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100),
+                workerThreads.factory("reminder-sender"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.sent = Counter.builder("appointments.reminders")
+                .description("Reminder delivery outcomes")
+                .tag("outcome", "sent")
+                .register(meterRegistry);
+        this.failed = Counter.builder("appointments.reminders")
+                .description("Reminder delivery outcomes")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        lock.lock();
+        try {
+            horizon = LocalDateTime.now();
+        } finally {
+            lock.unlock();
+        }
+        extendWindow(LocalDateTime.now());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Load the next window when half of the current one is used up, then hand off due batches
+     */
+    @Scheduled(fixedDelayString = "${appointments.reminders.poll-interval:PT15S}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        extendWindow(now);
+
+        List<Reminder> due;
+        while (!(due = pollDue(now)).isEmpty()) {
+            List<Reminder> batch = due;
+            executor.execute(() -> deliver(batch));
+        }
+    }
+
+    /**
+     * Keep the queue in step with committed approvals and cancellations
+     */
+    @TransactionalEventListener
+    public void onTransition(AppointmentTransitionEvent event) {
+        if (event.from() == AppointmentStatus.APPROVED && event.to() != AppointmentStatus.APPROVED) {
+            remove(event.appointmentId());
+        }
+
+        if (event.to() == AppointmentStatus.APPROVED && event.appointmentTime() != null) {
+            LocalDateTime now = LocalDateTime.now();
+            for (Duration lead : leadTimes) {
+                Reminder reminder = new Reminder(event.appointmentId(), event.patientId(),
+                        event.doctorId(), event.appointmentTime(), lead);
+                if (reminder.fireAt().isAfter(now)) {
+                    addIfWithinHorizon(reminder);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of reminders currently queued
+     */
+    public int pending() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===== internal =====
+
+    private void extendWindow(LocalDateTime now) {
+        LocalDateTime from;
+        LocalDateTime to = now.plus(window);
+        lock.lock();
+        try {
+            if (horizon.isAfter(now.plus(window.dividedBy(2)))) {
+                return;
+            }
+            // Move the horizon first: approvals committing while we query are added by onTransition
+            from = horizon;
+            horizon = to;
+        } finally {
+            lock.unlock();
+        }
+
+        for (Duration lead : leadTimes) {
+            List<Appointment> approved = appointmentRepository.findReminderWindow(
+                    AppointmentStatus.APPROVED, from.plus(lead), to.plus(lead));
+            for (Appointment appointment : approved) {
+                add(Reminder.of(appointment, lead));
+            }
+        }
+    }
+
+    private void addIfWithinHorizon(Reminder reminder) {
+        lock.lock();
+        try {
+            if (!reminder.fireAt().isAfter(horizon)) {
+                add(reminder);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(Reminder reminder) {
+        lock.lock();
+        try {
+            if (queue.add(reminder)) {
+                byAppointment.computeIfAbsent(reminder.appointmentId(), id -> new ArrayList<>(2))
+                        .add(reminder);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(Long appointmentId) {
+        lock.lock();
+        try {
+            List<Reminder> reminders = byAppointment.remove(appointmentId);
+            if (reminders != null) {
+                reminders.forEach(queue::remove);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Reminder> pollDue(LocalDateTime now) {
+        List<Reminder> due = new ArrayList<>();
+        lock.lock();
+        try {
+            while (due.size() < batchSize && !queue.isEmpty() && !queue.first().fireAt().isAfter(now)) {
+                Reminder reminder = queue.pollFirst();
+                due.add(reminder);
+
+                List<Reminder> siblings = byAppointment.get(reminder.appointmentId());
+                if (siblings != null && siblings.remove(reminder) && siblings.isEmpty()) {
+                    byAppointment.remove(reminder.appointmentId());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return due;
+    }
+
+    /**
+     * Re-check the batch against the database in one query (a cancellation may have raced
+     * with the window load), then send what is still valid
+     */
+    private void deliver(List<Reminder> batch) {
+        try {
+            Map<Long, Appointment> current = appointmentRepository
+                    .findAllById(batch.stream().map(Reminder::appointmentId).distinct().toList())
+                    .stream()
+                    .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+
+            List<Reminder> valid = batch.stream()
+                    .filter(r -> {
+                        Appointment a = current.get(r.appointmentId());
+                        return a != null
+                                && a.getStatus() == AppointmentStatus.APPROVED
+                                && Objects.equals(a.getAppointmentTime(), r.appointmentTime());
+                    })
+                    .toList();
+
+            if (!valid.isEmpty()) {
+                sender.send(valid);
+                sent.increment(valid.size());
+            }
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.warn("Failed to send {} reminders", batch.size(), e);
+        }
+    }
+}
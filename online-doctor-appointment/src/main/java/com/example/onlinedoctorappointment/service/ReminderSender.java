@@ -0,0 +1,19 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.dto.Reminder;
+
+import java.util.List;
+
+/**
+ * Delivers appointment reminders (mail, SMS, push...).
+ * Declare a bean of this type to replace the default LoggingReminderSender
+ * (mark it @Primary if there is more than one).
+ * Called from the reminder executor, never from request threads.
+ */
+public interface ReminderSender {
+
+    /**
+     * Send one batch; throwing marks the whole batch as failed
+     */
+    void send(List<Reminder> reminders);
+}
@@ -0,0 +1,56 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.event.SlotAvailabilityEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters behind the ETags of hot GET endpoints.
+ * A doctor's version moves on every committed change to their available slots,
+ * the directory version on every doctor write. Controllers read the version
+ * before the data, so a stale body is never labelled with a newer ETag.
+ * The random epoch keeps ETags from a previous run from matching after a restart.
+ */
+@Component
+public class ResourceVersions {
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final Map<Long, AtomicLong> doctorSlots = new ConcurrentHashMap<>();
+    private final AtomicLong directory = new AtomicLong();
+
+    /**
+     * Strong ETag of a doctor's available slots
+     */
+    public String doctorSlotsETag(Long doctorId) {
+        AtomicLong version = doctorSlots.get(doctorId);
+        return "\"slots-" + doctorId + "-" + epoch + "-" + (version == null ? 0 : version.get()) + "\"";
+    }
+
+    /**
+     * Strong ETag of the doctor directory (all listings and specialty listings)
+     */
+    public String directoryETag() {
+        return "\"doctors-" + epoch + "-" + directory.get() + "\"";
+    }
+
+    /**
+     * Published by SlotAvailabilityIndex after the change is visible in the index
+     */
+    @EventListener
+    public void onAvailabilityChange(SlotAvailabilityEvent event) {
+        doctorSlots.computeIfAbsent(event.doctorId(), id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Called by DoctorService once a write has committed and the directory caches were evicted
+     */
+    public void directoryChanged() {
+        directory.incrementAndGet();
+    }
+}
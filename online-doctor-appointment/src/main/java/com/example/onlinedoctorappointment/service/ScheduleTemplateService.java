@@ -0,0 +1,171 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.dto.ScheduleGenerationResult;
+import com.example.onlinedoctorappointment.dto.ScheduleTemplateRequest;
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.repository.DoctorRepository;
+import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Expands recurring schedule templates into time slots.
+ * Slots are inserted in JDBC batches (sequence ids with a pooled optimizer),
+ * flushing and clearing the persistence context after every batch.
+ */
+@Service
+public class ScheduleTemplateService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleTemplateService.class);
+
+    /** Upper bound of slots one template may generate */
+    static final int MAX_SLOTS = 20_000;
+
+    private final TimeSlotRepository timeSlotRepository;
+    private final DoctorRepository doctorRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final DoctorLockManager lockManager;
+    private final SlotOverlapGuard overlapGuard;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public ScheduleTemplateService(TimeSlotRepository timeSlotRepository,
+                                   DoctorRepository doctorRepository,
+                                   SlotAvailabilityIndex availabilityIndex,
+                                   DoctorLockManager lockManager,
+                                   SlotOverlapGuard overlapGuard,
+                                   EntityManager entityManager,
+                                   @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.timeSlotRepository = timeSlotRepository;
+        this.doctorRepository = doctorRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.lockManager = lockManager;
+        this.overlapGuard = overlapGuard;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Generate all slots described by the template for one doctor.
+     * Fails with 404 for an unknown doctor, and with 409 (creating nothing)
+     * if any generated slot overlaps an existing one.
+     */
+    @Transactional
+    public ScheduleGenerationResult generate(ScheduleTemplateRequest template) {
+
+        validate(template);
+        if (!doctorRepository.existsById(template.doctorId())) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Doctor not found"
+            );
+        }
+        lockManager.lockForTransaction(template.doctorId());
+
+        long started = System.nanoTime();
+        LocalDate firstDay = template.startDate() != null ? template.startDate() : LocalDate.now();
+        LocalDate lastDay = firstDay.plusWeeks(template.weeks());
+
+        List<TimeSlot> batch = new ArrayList<>(batchSize);
+        int created = 0;
+
+        for (LocalDate day = firstDay; day.isBefore(lastDay); day = day.plusDays(1)) {
+            if (!template.daysOfWeek().contains(day.getDayOfWeek())) {
+                continue;
+            }
+
+            LocalDateTime start = day.atTime(template.dayStart());
+            LocalDateTime dayEnd = day.atTime(template.dayEnd());
+
+            while (!start.plusMinutes(template.slotMinutes()).isAfter(dayEnd)) {
+                LocalDateTime end = start.plusMinutes(template.slotMinutes());
+                overlapGuard.reserve(template.doctorId(), start, end);
+                batch.add(new TimeSlot(template.doctorId(), start, end));
+                start = end;
+
+                if (++created > MAX_SLOTS) {
+                    throw new ResponseStatusException(
+                            HttpStatus.BAD_REQUEST,
+                            "Template would create more than " + MAX_SLOTS + " slots"
+                    );
+                }
+                if (batch.size() == batchSize) {
+                    insertBatch(batch);
+                }
+            }
+        }
+        insertBatch(batch);
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - started);
+        double slotsPerSecond = created * 1_000_000_000.0 / elapsedNanos;
+        log.info("Generated {} slots for doctor {} in {} ms ({} slots/s)",
+                created, template.doctorId(), elapsedNanos / 1_000_000, Math.round(slotsPerSecond));
+
+        return new ScheduleGenerationResult(
+                template.doctorId(), created, elapsedNanos / 1_000_000, slotsPerSecond);
+    }
+
+    // ===== internal =====
+
+    private void insertBatch(List<TimeSlot> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        timeSlotRepository.saveAll(batch);
+        entityManager.flush();
+        entityManager.clear();
+
+        availabilityIndex.slotsCreated(List.copyOf(batch));
+        batch.clear();
+    }
+
+    private void validate(ScheduleTemplateRequest template) {
+        if (template.doctorId() == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Doctor ID is required"
+            );
+        }
+
+        if (template.daysOfWeek() == null || template.daysOfWeek().isEmpty()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "At least one day of week is required"
+            );
+        }
+
+        if (template.dayStart() == null || template.dayEnd() == null
+                || !template.dayEnd().isAfter(template.dayStart())) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Day end must be after day start"
+            );
+        }
+
+        if (template.slotMinutes() == null || template.slotMinutes() < 5) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Slot length must be at least 5 minutes"
+            );
+        }
+
+        if (template.weeks() == null || template.weeks() < 1 || template.weeks() > 52) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Weeks must be between 1 and 52"
+            );
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.User;
+import com.example.onlinedoctorappointment.entity.UserRole;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Opaque session tokens held in an in-memory cache that expires idle sessions.
+ * Issued once per login, so authenticated requests never hash a password again.
+ * Sessions do not survive a restart; clients simply log in again.
+ */
+@Service
+public class SessionTokenService {
+
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, Session> sessions;
+    private final Duration ttl;
+
+    public SessionTokenService(@Value("${users.sessions.ttl:30m}") Duration ttl,
+                               @Value("${users.sessions.max-sessions:100000}") long maxSessions) {
+        this.ttl = ttl;
+        this.sessions = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .maximumSize(maxSessions)
+                .build();
+    }
+
+    /**
+     * Start a session for a user who has just been authenticated
+     */
+    public String issue(User user) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        sessions.put(token, new Session(user.getId(), user.getUsername(), user.getRole()));
+        return token;
+    }
+
+    /**
+     * Resolve a token (bare or "Bearer ..."), or 401 if unknown or expired
+     */
+    public Session authenticate(String token) {
+        Session session = token == null ? null : sessions.getIfPresent(strip(token));
+        if (session == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.UNAUTHORIZED,
+                    "Invalid or expired session"
+            );
+        }
+        return session;
+    }
+
+    /**
+     * End a session (logout)
+     */
+    public void revoke(String token) {
+        if (token != null) {
+            sessions.invalidate(strip(token));
+        }
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private static String strip(String token) {
+        return token.startsWith("Bearer ") ? token.substring("Bearer ".length()).trim() : token;
+    }
+
+    /**
+     * What a token stands for
+     */
+    public record Session(Long userId, String username, UserRole role) {
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.event.SlotAvailabilityEvent;
+import com.example.onlinedoctorappointment.event.SlotAvailabilityEvent.Change;
+import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of available time slots.
+ * Built once at startup, then kept up to date by the services that
+ * create, occupy or release slots, so availability queries never hit the database.
+ * Also maintains the per-doctor slots.inventory gauges (available / occupied)
+ * and publishes a SlotAvailabilityEvent for every committed change.
+ */
+@Component
+public class SlotAvailabilityIndex {
+
+    private final TimeSlotRepository timeSlotRepository;
+
+    /** Available slots per doctor, ordered by start time */
+    private final Map<Long, ConcurrentSkipListMap<SlotKey, TimeSlot>> byDoctor = new ConcurrentHashMap<>();
+
+    /** All available slots, ordered by start time */
+    private final ConcurrentSkipListMap<SlotKey, TimeSlot> byStartTime = new ConcurrentSkipListMap<>();
+
+    /** Slot ID -> indexed slot, used to find the sort key on removal */
+    private final Map<Long, TimeSlot> byId = new ConcurrentHashMap<>();
+
+    /** Per-doctor slot counts, updated incrementally alongside the index */
+    private final Map<Long, Inventory> inventories = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SlotAvailabilityIndex(TimeSlotRepository timeSlotRepository,
+                                 MeterRegistry meterRegistry,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.timeSlotRepository = timeSlotRepository;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Load all available slots from the database, plus one aggregate for occupied counts
+     */
+    @PostConstruct
+    public void rebuild() {
+        byDoctor.clear();
+        byStartTime.clear();
+        byId.clear();
+        inventories.values().forEach(Inventory::reset);
+
+        for (TimeSlot slot : timeSlotRepository.findByAvailableTrue()) {
+            put(slot);
+        }
+
+        for (TimeSlotRepository.DoctorSlotCount count : timeSlotRepository.countOccupiedByDoctor()) {
+            inventory(count.getDoctorId()).occupied.set(count.getSlots());
+        }
+    }
+
+    /**
+     * A new slot was persisted
+     */
+    public void slotCreated(TimeSlot slot) {
+        if (slot.isAvailable()) {
+            afterCommit(() -> {
+                put(slot);
+                publish(slot.getDoctorId(), Change.CREATED, List.of(slot));
+            });
+        }
+    }
+
+    /**
+     * A batch of new slots was persisted
+     */
+    public void slotsCreated(Collection<TimeSlot> slots) {
+        afterCommit(() -> {
+            Map<Long, List<TimeSlot>> created = slots.stream()
+                    .filter(TimeSlot::isAvailable)
+                    .collect(Collectors.groupingBy(TimeSlot::getDoctorId));
+            created.values().forEach(batch -> batch.forEach(this::put));
+            created.forEach((doctorId, batch) -> publish(doctorId, Change.CREATED, batch));
+        });
+    }
+
+    /**
+     * A slot was booked and is no longer available
+     */
+    public void slotOccupied(TimeSlot slot) {
+        afterCommit(() -> {
+            remove(slot.getId());
+            inventory(slot.getDoctorId()).occupied.incrementAndGet();
+            publish(slot.getDoctorId(), Change.OCCUPIED, List.of(slot));
+        });
+    }
+
+    /**
+     * A booked slot became available again
+     */
+    public void slotReleased(TimeSlot slot) {
+        afterCommit(() -> {
+            put(slot);
+            inventory(slot.getDoctorId()).occupied.decrementAndGet();
+            publish(slot.getDoctorId(), Change.RELEASED, List.of(slot));
+        });
+    }
+
+    /**
+     * Slots were moved to the archive table, whether they were available or occupied
+     */
+    public void slotsArchived(Collection<TimeSlotRepository.SlotRef> slots) {
+        afterCommit(() -> {
+            Map<Long, List<TimeSlot>> removed = new HashMap<>();
+            for (TimeSlotRepository.SlotRef slot : slots) {
+                TimeSlot available = byId.get(slot.getId());
+                if (available != null) {
+                    remove(slot.getId());
+                    removed.computeIfAbsent(slot.getDoctorId(), id -> new ArrayList<>()).add(available);
+                } else {
+                    inventory(slot.getDoctorId()).occupied.decrementAndGet();
+                }
+            }
+            removed.forEach((doctorId, batch) -> publish(doctorId, Change.REMOVED, batch));
+        });
+    }
+
+    /**
+     * Available slots of one doctor, ordered by start time
+     */
+    public List<TimeSlot> availableByDoctor(Long doctorId) {
+        NavigableMap<SlotKey, TimeSlot> slots = byDoctor.get(doctorId);
+        return slots == null ? List.of() : new ArrayList<>(slots.values());
+    }
+
+    /**
+     * Available slots starting strictly after the given time, ordered by start time
+     */
+    public List<TimeSlot> availableAfter(LocalDateTime time) {
+        return new ArrayList<>(byStartTime.tailMap(SlotKey.after(time)).values());
+    }
+
+    /**
+     * The earliest available slots of the given doctors starting strictly after the given time.
+     * K-way merge: a heap holds the next slot of each doctor, so the cost is
+     * O((doctors + limit) log doctors) regardless of how many slots are indexed.
+     */
+    public List<TimeSlot> earliestAvailable(Collection<Long> doctorIds, LocalDateTime after, int limit) {
+        SlotKey from = SlotKey.after(after);
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparing(Cursor::key));
+
+        for (Long doctorId : doctorIds) {
+            NavigableMap<SlotKey, TimeSlot> slots = byDoctor.get(doctorId);
+            if (slots != null) {
+                Cursor.first(slots.tailMap(from).entrySet().iterator()).ifPresent(heads::add);
+            }
+        }
+
+        List<TimeSlot> result = new ArrayList<>(limit);
+        while (result.size() < limit && !heads.isEmpty()) {
+            Cursor head = heads.poll();
+            result.add(head.slot());
+            Cursor.first(head.rest()).ifPresent(heads::add);
+        }
+        return result;
+    }
+
+    // ===== internal =====
+
+    private void put(TimeSlot slot) {
+        remove(slot.getId());
+
+        SlotKey key = SlotKey.of(slot);
+        byId.put(slot.getId(), slot);
+        byStartTime.put(key, slot);
+        byDoctor.computeIfAbsent(slot.getDoctorId(), id -> new ConcurrentSkipListMap<>())
+                .put(key, slot);
+        inventory(slot.getDoctorId()).available.incrementAndGet();
+    }
+
+    private void remove(Long slotId) {
+        TimeSlot existing = byId.remove(slotId);
+        if (existing == null) {
+            return;
+        }
+
+        SlotKey key = SlotKey.of(existing);
+        byStartTime.remove(key);
+
+        NavigableMap<SlotKey, TimeSlot> slots = byDoctor.get(existing.getDoctorId());
+        if (slots != null) {
+            slots.remove(key);
+        }
+        inventory(existing.getDoctorId()).available.decrementAndGet();
+    }
+
+    private void publish(Long doctorId, Change change, List<TimeSlot> slots) {
+        eventPublisher.publishEvent(new SlotAvailabilityEvent(doctorId, change, slots));
+    }
+
+    private Inventory inventory(Long doctorId) {
+        return inventories.computeIfAbsent(doctorId, id -> new Inventory(id, meterRegistry));
+    }
+
+    /**
+     * Apply index changes only once the surrounding transaction has committed,
+     * so a rolled back booking never shows up in the index.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Available / occupied slot counts of one doctor, exported as gauges
+     */
+    private static final class Inventory {
+
+        final AtomicLong available = new AtomicLong();
+        final AtomicLong occupied = new AtomicLong();
+
+        Inventory(Long doctorId, MeterRegistry meterRegistry) {
+            Gauge.builder("slots.inventory", available, AtomicLong::get)
+                    .description("Time slots per doctor and state")
+                    .tag("doctor", String.valueOf(doctorId))
+                    .tag("state", "available")
+                    .register(meterRegistry);
+            Gauge.builder("slots.inventory", occupied, AtomicLong::get)
+                    .description("Time slots per doctor and state")
+                    .tag("doctor", String.valueOf(doctorId))
+                    .tag("state", "occupied")
+                    .register(meterRegistry);
+        }
+
+        void reset() {
+            available.set(0);
+            occupied.set(0);
+        }
+    }
+
+    /**
+     * Current position in one doctor's slot stream during a k-way merge
+     */
+    private record Cursor(SlotKey key, TimeSlot slot, Iterator<Map.Entry<SlotKey, TimeSlot>> rest) {
+
+        static Optional<Cursor> first(Iterator<Map.Entry<SlotKey, TimeSlot>> slots) {
+            if (!slots.hasNext()) {
+                return Optional.empty();
+            }
+            Map.Entry<SlotKey, TimeSlot> next = slots.next();
+            return Optional.of(new Cursor(next.getKey(), next.getValue(), slots));
+        }
+    }
+
+    /**
+     * Sort key: start time, then slot ID to keep equal start times distinct
+     */
+    record SlotKey(LocalDateTime startTime, long id) implements Comparable<SlotKey> {
+
+        static SlotKey of(TimeSlot slot) {
+            return new SlotKey(slot.getStartTime(), slot.getId());
+        }
+
+        /** Key that sorts after every slot starting at the given time */
+        static SlotKey after(LocalDateTime time) {
+            return new SlotKey(time, Long.MAX_VALUE);
+        }
+
+        @Override
+        public int compareTo(SlotKey other) {
+            int byTime = startTime.compareTo(other.startTime);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejects time slots that overlap an existing slot of the same doctor.
+ * Every slot (available or not) is held as start -> end in a per-doctor sorted map,
+ * so a new slot is checked against its two neighbours in O(log n).
+ * A doctor's map is only touched while holding that doctor's lock (DoctorLockManager).
+ * Times are keyed at column precision (microseconds), so a start passed in by a caller
+ * and the same start read back from the database always find the same entry.
+ */
+@Component
+public class SlotOverlapGuard {
+
+    private final TimeSlotRepository timeSlotRepository;
+
+    /** Slot intervals per doctor: start time -> end time, never overlapping */
+    private final Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> byDoctor = new ConcurrentHashMap<>();
+
+    public SlotOverlapGuard(TimeSlotRepository timeSlotRepository) {
+        this.timeSlotRepository = timeSlotRepository;
+    }
+
+    /**
+     * Load every slot interval from the database
+     */
+    @PostConstruct
+    public void rebuild() {
+        byDoctor.clear();
+        for (TimeSlotRepository.SlotInterval slot : timeSlotRepository.findAllIntervals()) {
+            // Overlaps created before this guard existed: keep the widest end per start
+            intervals(slot.getDoctorId()).merge(
+                    columnPrecision(slot.getStartTime()),
+                    columnPrecision(slot.getEndTime()),
+                    (a, b) -> a.isAfter(b) ? a : b);
+        }
+    }
+
+    /**
+     * Reserve [start, end) on the doctor's calendar or fail with 409.
+     * Must be called inside a transaction holding the doctor's lock;
+     * the reservation is undone if that transaction rolls back.
+     */
+    public void reserve(Long doctorId, LocalDateTime start, LocalDateTime end) {
+        start = columnPrecision(start);
+        end = columnPrecision(end);
+        List<Interval> pending = pendingReservations();
+        NavigableMap<LocalDateTime, LocalDateTime> intervals = intervals(doctorId);
+
+        Map.Entry<LocalDateTime, LocalDateTime> before = intervals.floorEntry(start);
+        Map.Entry<LocalDateTime, LocalDateTime> after = intervals.higherEntry(start);
+        if ((before != null && before.getValue().isAfter(start))
+                || (after != null && after.getKey().isBefore(end))) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "Time slot overlaps an existing slot of this doctor"
+            );
+        }
+
+        intervals.put(start, end);
+        pending.add(new Interval(doctorId, start));
+    }
+
+    /**
+     * Slots were deleted from the database
+     */
+    public void slotRemoved(Long doctorId, LocalDateTime start) {
+        NavigableMap<LocalDateTime, LocalDateTime> intervals = byDoctor.get(doctorId);
+        if (intervals != null) {
+            intervals.remove(columnPrecision(start));
+        }
+    }
+
+    // ===== internal =====
+
+    /** Same precision as the TIMESTAMP columns (see TimeSlot) */
+    static LocalDateTime columnPrecision(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private NavigableMap<LocalDateTime, LocalDateTime> intervals(Long doctorId) {
+        return byDoctor.computeIfAbsent(doctorId, id -> new TreeMap<>());
+    }
+
+    /**
+     * Reservations of the current transaction, rolled back before the doctor locks are released
+     */
+    @SuppressWarnings("unchecked")
+    private List<Interval> pendingReservations() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Slot reservations can only be made inside a transaction");
+        }
+
+        List<Interval> pending = (List<Interval>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        List<Interval> reservations = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, reservations);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                // Run before DoctorLockManager unlocks, so nobody sees a rolled back reservation
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SlotOverlapGuard.this);
+                if (status != STATUS_COMMITTED) {
+                    reservations.forEach(r -> slotRemoved(r.doctorId(), r.start()));
+                }
+            }
+        });
+        return reservations;
+    }
+
+    private record Interval(Long doctorId, LocalDateTime start) {
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.Doctor;
+import com.example.onlinedoctorappointment.event.SlotAvailabilityEvent;
+import com.example.onlinedoctorappointment.event.SlotAvailabilityEvent.Change;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events streams of slot availability, per doctor or per specialty.
+ * A new subscriber gets one SNAPSHOT per doctor from the availability index, then
+ * every committed change. Each change is JSON-encoded once and the same frame is
+ * written to all subscribers on a small fan-out pool, never on request threads.
+ */
+@Service
+public class SlotStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotStreamService.class);
+
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final DoctorService doctorService;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final ThreadPoolExecutor fanOut;
+
+    /** Doctor ID -> open streams interested in that doctor */
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger open = new AtomicInteger();
+
+    public SlotStreamService(SlotAvailabilityIndex availabilityIndex,
+                             DoctorService doctorService,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             WorkerThreads workerThreads,
+                             @Value("${appointments.streams.timeout:30m}") Duration timeout,
+                             @Value("${appointments.streams.fan-out-threads:2}") int threads) {
+        this.availabilityIndex = availabilityIndex;
+        this.doctorService = doctorService;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+
+        this.fanOut = new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(10_000),
+                workerThreads.factory("slot-stream"));
+
+        Gauge.builder("slots.streams.open", open, AtomicInteger::get)
+                .description("Open slot availability streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stream one doctor's available slots
+     */
+    public SseEmitter subscribeDoctor(Long doctorId) {
+        return subscribe(List.of(doctorId));
+    }
+
+    /**
+     * Stream the available slots of every doctor currently listed under the specialty
+     */
+    public SseEmitter subscribeSpecialty(String specialty) {
+        return subscribe(doctorService.getDoctorsBySpecialty(specialty).stream()
+                .map(Doctor::getId)
+                .toList());
+    }
+
+    /**
+     * Encode the change once, then write the same frame to every subscriber of the doctor
+     */
+    @EventListener
+    public void onAvailabilityChange(SlotAvailabilityEvent event) {
+        Set<Subscriber> streams = subscribers.get(event.doctorId());
+        if (streams == null || streams.isEmpty()) {
+            return;
+        }
+
+        Set<DataWithMediaType> frame;
+        try {
+            frame = frame(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not encode slot change for doctor {}", event.doctorId(), e);
+            return;
+        }
+
+        try {
+            fanOut.execute(() -> streams.forEach(subscriber -> subscriber.send(frame)));
+        } catch (RejectedExecutionException e) {
+            // Fan-out is hopelessly behind: drop the streams, clients reconnect and get a fresh snapshot
+            log.warn("Slot stream fan-out queue full, closing streams of doctor {}", event.doctorId());
+            streams.forEach(subscriber -> subscriber.emitter().complete());
+        }
+    }
+
+    /**
+     * Comment frames keep idle connections open through proxies and detect gone clients.
+     * One fan-out task writes to every stream, so a heartbeat costs a single queue slot.
+     */
+    @Scheduled(fixedDelayString = "${appointments.streams.heartbeat:PT30S}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Set<DataWithMediaType> frame = SseEmitter.event().comment("keepalive").build();
+        try {
+            fanOut.execute(() -> subscribers.values().stream()
+                    .flatMap(Set::stream)
+                    .distinct()
+                    .forEach(subscriber -> subscriber.send(frame)));
+        } catch (RejectedExecutionException e) {
+            // Change frames are already being dropped for a full queue; the next heartbeat tries again
+            log.warn("Slot stream fan-out queue full, skipping heartbeat");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdownNow();
+    }
+
+    // ===== internal =====
+
+    private SseEmitter subscribe(List<Long> doctorIds) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, new ReentrantLock());
+        Runnable unsubscribe = () -> {
+            boolean removed = false;
+            for (Long doctorId : doctorIds) {
+                removed |= unregister(doctorId, subscriber);
+            }
+            if (removed) {
+                open.decrementAndGet();
+            }
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        // Holding the subscriber's lock orders the snapshots before any change frame;
+        // a change that lands in between is re-applied idempotently by the client
+        subscriber.lock().lock();
+        try {
+            doctorIds.forEach(id -> subscribers.computeIfAbsent(id, key -> new CopyOnWriteArraySet<>()).add(subscriber));
+            open.incrementAndGet();
+
+            for (Long doctorId : doctorIds) {
+                SlotAvailabilityEvent snapshot = new SlotAvailabilityEvent(
+                        doctorId, Change.SNAPSHOT, availabilityIndex.availableByDoctor(doctorId));
+                try {
+                    emitter.send(frame(snapshot));
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                    break;
+                }
+            }
+        } finally {
+            subscriber.lock().unlock();
+        }
+        return emitter;
+    }
+
+    private boolean unregister(Long doctorId, Subscriber subscriber) {
+        boolean[] removed = {false};
+        subscribers.computeIfPresent(doctorId, (id, streams) -> {
+            removed[0] = streams.remove(subscriber);
+            return streams.isEmpty() ? null : streams;
+        });
+        return removed[0];
+    }
+
+    private Set<DataWithMediaType> frame(SlotAvailabilityEvent event) throws JsonProcessingException {
+        return SseEmitter.event()
+                .name(event.change().name())
+                .data(objectMapper.writeValueAsString(event))
+                .build();
+    }
+
+    /**
+     * An open stream; its lock serializes frames written to it from subscribe and the fan-out pool
+     * (a lock rather than the emitter's monitor, so virtual fan-out threads are not pinned on it)
+     */
+    private record Subscriber(SseEmitter emitter, ReentrantLock lock) {
+
+        void send(Set<DataWithMediaType> frame) {
+            lock.lock();
+            try {
+                emitter.send(frame);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the stream already completed
+                emitter.completeWithError(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
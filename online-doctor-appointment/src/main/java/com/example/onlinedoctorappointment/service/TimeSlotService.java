@@ -1,26 +1,53 @@
 package com.example.onlinedoctorappointment.service;
 
+import com.example.onlinedoctorappointment.dto.CursorPage;
+import com.example.onlinedoctorappointment.entity.Doctor;
 import com.example.onlinedoctorappointment.entity.TimeSlot;
 import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
+@Timed(value = "service.calls", description = "Service method latency")
 public class TimeSlotService {
 
-    private final TimeSlotRepository timeSlotRepository;
+    /** Upper bound for the earliest-slot search */
+    static final int MAX_EARLIEST_LIMIT = 100;
 
-    public TimeSlotService(TimeSlotRepository timeSlotRepository) {
+    private final TimeSlotRepository timeSlotRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final DoctorLockManager lockManager;
+    private final AppointmentMetrics metrics;
+    private final DoctorService doctorService;
+    private final SlotOverlapGuard overlapGuard;
+
+    public TimeSlotService(TimeSlotRepository timeSlotRepository,
+                           SlotAvailabilityIndex availabilityIndex,
+                           DoctorLockManager lockManager,
+                           AppointmentMetrics metrics,
+                           DoctorService doctorService,
+                           SlotOverlapGuard overlapGuard) {
         this.timeSlotRepository = timeSlotRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.lockManager = lockManager;
+        this.metrics = metrics;
+        this.doctorService = doctorService;
+        this.overlapGuard = overlapGuard;
     }
 
     /**
      * Doctor creates time slot (service-level creation)
+     * Rejects slots overlapping another slot of the same doctor
      */
+    @Transactional
     public TimeSlot createSlot(Long doctorId,
                                LocalDateTime start,
                                LocalDateTime end) {
@@ -46,13 +73,19 @@ public class TimeSlotService {
             );
         }
 
-        TimeSlot slot = new TimeSlot(doctorId, start, end);
-        return timeSlotRepository.save(slot);
+        lockManager.lockForTransaction(doctorId);
+        overlapGuard.reserve(doctorId, start, end);
+
+        TimeSlot slot = timeSlotRepository.save(new TimeSlot(doctorId, start, end));
+        availabilityIndex.slotCreated(slot);
+        return slot;
     }
 
     /**
      * Create time slot directly from controller POST
+     * Rejects slots overlapping another slot of the same doctor
      */
+    @Transactional
     public TimeSlot createTimeSlot(TimeSlot timeSlot) {
 
         if (timeSlot.getDoctorId() == null) {
@@ -76,18 +109,26 @@ public class TimeSlotService {
             );
         }
 
-        return timeSlotRepository.save(timeSlot);
+        lockManager.lockForTransaction(timeSlot.getDoctorId());
+        overlapGuard.reserve(timeSlot.getDoctorId(), timeSlot.getStartTime(), timeSlot.getEndTime());
+
+        TimeSlot saved = timeSlotRepository.save(timeSlot);
+        availabilityIndex.slotCreated(saved);
+        return saved;
     }
 
     /**
-     * Get all time slots
+     * Get all time slots, one page at a time (keyset on id)
      */
-    public List<TimeSlot> getAllTimeSlots() {
-        return timeSlotRepository.findAll();
+    public CursorPage<TimeSlot> getAllTimeSlots(String cursor, int size) {
+        CursorPage.checkSize(size);
+        List<TimeSlot> rows = timeSlotRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decode(cursor), Limit.of(size + 1));
+        return CursorPage.of(rows, size, TimeSlot::getId);
     }
 
     /**
-     * Get available slots for a doctor
+     * Get available slots for a doctor (served from the availability index)
      */
     public List<TimeSlot> getAvailableSlotsByDoctor(Long doctorId) {
 
@@ -98,11 +139,11 @@ public class TimeSlotService {
             );
         }
 
-        return timeSlotRepository.findByDoctorIdAndAvailableTrue(doctorId);
+        return availabilityIndex.availableByDoctor(doctorId);
     }
 
     /**
-     * Filter available slots after given time
+     * Filter available slots after given time (served from the availability index)
      */
     public List<TimeSlot> getAvailableSlotsAfter(LocalDateTime time) {
 
@@ -113,12 +154,39 @@ public class TimeSlotService {
             );
         }
 
-        return timeSlotRepository.findByAvailableTrueAndStartTimeAfter(time);
+        return availabilityIndex.availableAfter(time);
+    }
+
+    /**
+     * The earliest available slots across all enabled doctors of a specialty
+     * (cached doctor directory + k-way merge over the availability index)
+     */
+    public List<TimeSlot> getEarliestAvailableBySpecialty(String specialty, LocalDateTime after, int limit) {
+
+        if (specialty == null || specialty.isBlank()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Specialty is required"
+            );
+        }
+
+        if (limit < 1 || limit > MAX_EARLIEST_LIMIT) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_EARLIEST_LIMIT
+            );
+        }
+
+        List<Long> doctorIds = doctorService.getDoctorsBySpecialty(specialty).stream()
+                .map(Doctor::getId)
+                .toList();
+        return availabilityIndex.earliestAvailable(doctorIds, after, limit);
     }
 
     /**
      * Mark slot as unavailable (called when appointment created)
      */
+    @Transactional
     public void occupySlot(Long slotId) {
 
         if (slotId == null) {
@@ -128,20 +196,36 @@ public class TimeSlotService {
             );
         }
 
+        timeSlotRepository.findDoctorIdById(slotId)
+                .ifPresent(lockManager::lockForTransaction);
         TimeSlot slot = timeSlotRepository.findById(slotId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "Time slot not found"
                 ));
 
-        if (!slot.isAvailable()) {
+        if (!slot.isAvailable() || !claimSlot(slot)) {
+            metrics.bookingConflict("occupySlot");
             throw new ResponseStatusException(
                     HttpStatus.CONFLICT,
                     "Time slot already booked"
             );
         }
 
+        availabilityIndex.slotOccupied(slot);
+    }
+
+    /**
+     * Versioned update of the slot, flushed now; a stale version or a lock timeout
+     * on the row counts as losing the race
+     */
+    private boolean claimSlot(TimeSlot slot) {
         slot.setAvailable(false);
-        timeSlotRepository.save(slot);
+        try {
+            timeSlotRepository.flush();
+            return true;
+        } catch (ConcurrencyFailureException e) {
+            return false;
+        }
     }
 }
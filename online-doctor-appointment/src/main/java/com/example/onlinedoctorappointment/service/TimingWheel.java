@@ -0,0 +1,156 @@
+package com.example.onlinedoctorappointment.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Kafka / Varghese-Lauck style).
+ * Level 0 has wheelSize buckets of tickMillis each; every overflow level's tick is the whole
+ * span of the level below, so adding a timer is O(1) however far away it expires.
+ * Only non-empty buckets go into a DelayQueue, so an idle wheel costs nothing and
+ * expiry never scans timers that are not due.
+ * add and advance may be called from different threads; the root wheel's lock (not a monitor,
+ * so it never pins a virtual thread) guards all levels, and advance only holds it while
+ * expiring, not while waiting.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long interval;
+    private final Bucket<T>[] buckets;
+    private final DelayQueue<Bucket<T>> queue;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Start of the current tick, a multiple of tickMillis */
+    private long currentTime;
+
+    private TimingWheel<T> overflow;
+
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this(tickMillis, wheelSize, startMillis, new DelayQueue<>());
+    }
+
+    private TimingWheel(long tickMillis, int wheelSize, long startMillis, DelayQueue<Bucket<T>> queue) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.interval = tickMillis * wheelSize;
+        this.queue = queue;
+        this.currentTime = startMillis - (startMillis % tickMillis);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Bucket<T>[] buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        this.buckets = buckets;
+    }
+
+    /**
+     * Schedule a timer; returns false if it is already due (the caller should fire it now)
+     */
+    boolean add(Timer<T> timer) {
+        lock.lock();
+        try {
+            return addInternal(timer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean addInternal(Timer<T> timer) {
+        long expiration = timer.expiresAtMillis();
+        if (expiration < currentTime + tickMillis) {
+            return false;
+        }
+
+        if (expiration < currentTime + interval) {
+            long virtualId = expiration / tickMillis;
+            Bucket<T> bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.timers.add(timer);
+            if (bucket.setExpiration(virtualId * tickMillis)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+
+        if (overflow == null) {
+            overflow = new TimingWheel<>(interval, wheelSize, currentTime, queue);
+        }
+        return overflow.addInternal(timer);
+    }
+
+    /**
+     * Wait up to timeoutMillis for the next due bucket, advance the clock to it and
+     * hand every due timer to the consumer. Timers of higher levels whose bucket came due
+     * are re-inserted (cascaded) into finer levels instead.
+     */
+    void advance(long timeoutMillis, Consumer<Timer<T>> onExpired) throws InterruptedException {
+        Bucket<T> bucket = queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        lock.lock();
+        try {
+            while (bucket != null) {
+                advanceClock(bucket.expiration);
+                for (Timer<T> timer : bucket.drain()) {
+                    if (!addInternal(timer)) {
+                        onExpired.accept(timer);
+                    }
+                }
+                bucket = queue.poll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void advanceClock(long time) {
+        if (time >= currentTime + tickMillis) {
+            currentTime = time - (time % tickMillis);
+            if (overflow != null) {
+                overflow.advanceClock(currentTime);
+            }
+        }
+    }
+
+    /**
+     * A scheduled payload
+     */
+    record Timer<T>(T payload, long expiresAtMillis) {
+    }
+
+    private static final class Bucket<T> implements Delayed {
+
+        private final List<Timer<T>> timers = new ArrayList<>();
+        private volatile long expiration = -1;
+
+        /** Returns true if the bucket got a new expiration (and must be queued again) */
+        boolean setExpiration(long newExpiration) {
+            if (expiration == newExpiration) {
+                return false;
+            }
+            expiration = newExpiration;
+            return true;
+        }
+
+        List<Timer<T>> drain() {
+            List<Timer<T>> drained = new ArrayList<>(timers);
+            timers.clear();
+            expiration = -1;
+            return drained;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiration - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiration, ((Bucket<?>) other).expiration);
+        }
+    }
+}
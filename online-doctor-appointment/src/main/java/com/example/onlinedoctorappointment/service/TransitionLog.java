@@ -0,0 +1,353 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.event.AppointmentTransitionEvent;
+import com.example.onlinedoctorappointment.event.LoggedTransition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Durable, append-only log of every committed appointment transition,
+ * stored as memory-mapped segment files under appointments.event-log.dir.
+ * Committed transitions are queued and written by a single writer thread,
+ * which forces the segment to disk once per drained batch (group commit),
+ * so request threads never wait for the disk and a burst costs one fsync.
+ * A transition is appended after its transaction commits: a crash in between
+ * loses the log entry, never the other way round.
+ * Readers see only records that have been forced to disk.
+ * The writer runs on a virtual thread when spring.threads.virtual.enabled is on (JDK 21+);
+ * the segment is guarded by a lock rather than a monitor, so fsync never pins its carrier.
+ */
+@Component
+public class TransitionLog {
+
+    private static final Logger log = LoggerFactory.getLogger(TransitionLog.class);
+
+    /** Upper bound of records per group commit */
+    private static final int MAX_BATCH = 1_000;
+
+    /** Stands in for a null id or timestamp in a record */
+    private static final long NULL = Long.MIN_VALUE;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final BlockingQueue<AppointmentTransitionEvent> queue;
+    private final Counter appended;
+    private final Counter batches;
+    private final WorkerThreads workerThreads;
+
+    /** Guards segment and nextSequence */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private LogSegment segment;
+    private long nextSequence;
+
+    /** Highest sequence known to be on disk; readers stop there */
+    private volatile long durableSequence;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public TransitionLog(MeterRegistry meterRegistry,
+                         WorkerThreads workerThreads,
+                         @Value("${appointments.event-log.dir:data/event-log}") Path dir,
+                         @Value("${appointments.event-log.segment-size:64MB}") DataSize segmentSize,
+                         @Value("${appointments.event-log.queue-capacity:65536}") int queueCapacity) {
+        this.dir = dir;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerThreads = workerThreads;
+
+        this.appended = Counter.builder("appointments.event_log.records")
+                .description("Transitions appended to the event log")
+                .register(meterRegistry);
+        this.batches = Counter.builder("appointments.event_log.syncs")
+                .description("Group commits (one fsync each) of the event log")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reopen the newest segment after its last intact record, then start the writer
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(dir);
+
+        List<Path> segments = segments();
+        long base = segments.isEmpty() ? 1 : LogSegment.baseSequence(segments.get(segments.size() - 1));
+        segment = LogSegment.open(dir, base, segmentSize);
+        nextSequence = segment.lastSequence() + 1;
+        durableSequence = segment.lastSequence();
+
+        running = true;
+        writer = workerThreads.start("transition-log-writer", this::writeLoop);
+        log.info("Transition log at {} opened, next sequence {}", dir.toAbsolutePath(), nextSequence);
+    }
+
+    /**
+     * Write what is still queued, then close the log
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        lock.lock();
+        try {
+            if (segment != null) {
+                segment.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue a committed transition; blocks (back-pressure) only if the writer falls far behind
+     */
+    @TransactionalEventListener
+    public void onTransition(AppointmentTransitionEvent event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted, transition of appointment {} not logged", event.appointmentId());
+        }
+    }
+
+    /**
+     * Highest sequence that is on disk and visible to readers (0 if the log is empty)
+     */
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    /**
+     * Feed every durable record with a sequence greater than afterSequence to the consumer, in order.
+     * Used for audit, rebuilding in-memory state after a restart and catching up downstream consumers.
+     * Returns the last sequence delivered (afterSequence if none).
+     */
+    public long replay(long afterSequence, Consumer<LoggedTransition> consumer) {
+        long[] last = {afterSequence};
+        scan(afterSequence, record -> {
+            consumer.accept(record);
+            last[0] = record.sequence();
+            return true;
+        });
+        return last[0];
+    }
+
+    /**
+     * At most limit durable records with a sequence greater than afterSequence
+     */
+    public List<LoggedTransition> read(long afterSequence, int limit) {
+        List<LoggedTransition> records = new ArrayList<>(Math.min(limit, 1_000));
+        if (limit > 0) {
+            scan(afterSequence, record -> {
+                records.add(record);
+                return records.size() < limit;
+            });
+        }
+        return records;
+    }
+
+    // ===== writer =====
+
+    private void writeLoop() {
+        List<AppointmentTransitionEvent> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                AppointmentTransitionEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                // Keep the writer alive; the batch is lost but later transitions are still logged
+                log.error("Failed to append {} transitions to the log", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AppointmentTransitionEvent> batch) throws IOException {
+        lock.lock();
+        try {
+            for (AppointmentTransitionEvent event : batch) {
+                long sequence = nextSequence;
+                ByteBuffer payload = encode(sequence, event);
+                if (!segment.append(sequence, payload)) {
+                    roll(sequence);
+                    if (!segment.append(sequence, payload)) {
+                        throw new IllegalStateException("Record larger than a log segment");
+                    }
+                }
+                nextSequence++;
+            }
+
+            segment.force();
+            durableSequence = segment.lastSequence();
+        } finally {
+            lock.unlock();
+        }
+        appended.increment(batch.size());
+        batches.increment();
+    }
+
+    /**
+     * Seal the full segment and start a new one named after the next sequence
+     */
+    private void roll(long nextSequence) throws IOException {
+        if (segment.isEmpty()) {
+            return;
+        }
+        segment.force();
+        durableSequence = segment.lastSequence();
+        segment.close();
+        segment = LogSegment.open(dir, nextSequence, segmentSize);
+    }
+
+    // ===== readers =====
+
+    private void scan(long afterSequence, Predicate<LoggedTransition> visitor) {
+        long limit = durableSequence;
+        if (afterSequence >= limit) {
+            return;
+        }
+
+        List<Path> segments = segments();
+        // Start at the last segment whose first record is at or before the one we want
+        int first = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (LogSegment.baseSequence(segments.get(i)) <= afterSequence + 1) {
+                first = i;
+            }
+        }
+
+        boolean[] more = {true};
+        for (int i = first; i < segments.size() && more[0]; i++) {
+            try {
+                LogSegment.read(segments.get(i), payload -> {
+                    long sequence = payload.getLong(0);
+                    if (sequence > limit) {
+                        more[0] = false;
+                        return false;
+                    }
+                    if (sequence > afterSequence && !visitor.test(decode(payload))) {
+                        more[0] = false;
+                        return false;
+                    }
+                    return true;
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(LogSegment::isSegment)
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ===== record format =====
+
+    static ByteBuffer encode(long sequence, AppointmentTransitionEvent event) {
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        buffer.putLong(sequence);
+        putLong(buffer, event.appointmentId());
+        putLong(buffer, event.patientId());
+        putLong(buffer, event.doctorId());
+        putLong(buffer, event.timeSlotId());
+        if (event.appointmentTime() == null) {
+            buffer.putLong(NULL).putInt(0);
+        } else {
+            buffer.putLong(event.appointmentTime().toEpochSecond(ZoneOffset.UTC))
+                    .putInt(event.appointmentTime().getNano());
+        }
+        putStatus(buffer, event.from());
+        putStatus(buffer, event.to());
+        buffer.putLong(event.occurredAt().getEpochSecond()).putInt(event.occurredAt().getNano());
+        return buffer.flip();
+    }
+
+    static LoggedTransition decode(ByteBuffer payload) {
+        ByteBuffer buffer = payload.duplicate();
+        long sequence = buffer.getLong();
+        Long appointmentId = getLong(buffer);
+        Long patientId = getLong(buffer);
+        Long doctorId = getLong(buffer);
+        Long timeSlotId = getLong(buffer);
+        long appointmentSeconds = buffer.getLong();
+        int appointmentNanos = buffer.getInt();
+        LocalDateTime appointmentTime = appointmentSeconds == NULL
+                ? null
+                : LocalDateTime.ofEpochSecond(appointmentSeconds, appointmentNanos, ZoneOffset.UTC);
+        AppointmentStatus from = getStatus(buffer);
+        AppointmentStatus to = getStatus(buffer);
+        Instant occurredAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+
+        return new LoggedTransition(sequence, new AppointmentTransitionEvent(
+                appointmentId, patientId, doctorId, timeSlotId, appointmentTime, from, to, occurredAt));
+    }
+
+    private static void putLong(ByteBuffer buffer, Long value) {
+        buffer.putLong(value == null ? NULL : value);
+    }
+
+    private static Long getLong(ByteBuffer buffer) {
+        long value = buffer.getLong();
+        return value == NULL ? null : value;
+    }
+
+    /** By name, so reordering the enum never changes the meaning of old records */
+    private static void putStatus(ByteBuffer buffer, AppointmentStatus status) {
+        byte[] name = status == null ? new byte[0] : status.name().getBytes(StandardCharsets.US_ASCII);
+        buffer.put((byte) name.length).put(name);
+    }
+
+    private static AppointmentStatus getStatus(ByteBuffer buffer) {
+        byte[] name = new byte[buffer.get()];
+        buffer.get(name);
+        return name.length == 0 ? null : AppointmentStatus.valueOf(new String(name, StandardCharsets.US_ASCII));
+    }
+}
@@ -1,23 +1,36 @@
 package com.example.onlinedoctorappointment.service;
 
+import com.example.onlinedoctorappointment.dto.LoginResponse;
 import com.example.onlinedoctorappointment.entity.User;
 import com.example.onlinedoctorappointment.entity.UserRole;
 import com.example.onlinedoctorappointment.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
+@Timed(value = "service.calls", description = "Service method latency")
 public class UserService {
 
     private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final SessionTokenService sessionTokenService;
 
-    public UserService(UserRepository userRepository) {
+    /** Compared against for unknown usernames, so they take as long as a wrong password */
+    private final String dummyHash;
+
+    public UserService(UserRepository userRepository,
+                       PasswordHasher passwordHasher,
+                       SessionTokenService sessionTokenService) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.sessionTokenService = sessionTokenService;
+        this.dummyHash = passwordHasher.hash("not-a-real-password");
     }
 
     /**
-     * Register user
+     * Register user (password is stored as a salted BCrypt hash)
      */
     public User register(String username, String password, UserRole role) {
 
@@ -49,14 +62,14 @@ public class UserService {
             );
         });
 
-        User user = new User(username, password, role);
+        User user = new User(username, passwordHasher.hash(password), role);
         return userRepository.save(user);
     }
 
     /**
-     * Login
+     * Login: verify the password hash once and issue a session token
      */
-    public User login(String username, String password) {
+    public LoginResponse login(String username, String password) {
 
         if (username == null || password == null) {
             throw new ResponseStatusException(
@@ -65,19 +78,32 @@ public class UserService {
             );
         }
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.UNAUTHORIZED,
-                        "Invalid username or password"
-                ));
+        User user = userRepository.findByUsername(username).orElse(null);
+        String hash = user != null ? user.getPassword() : dummyHash;
 
-        if (!user.getPassword().equals(password)) {
+        if (!passwordHasher.matches(password, hash) || user == null) {
             throw new ResponseStatusException(
                     HttpStatus.UNAUTHORIZED,
                     "Invalid username or password"
             );
         }
 
-        return user;
+        String token = sessionTokenService.issue(user);
+        return new LoginResponse(token, sessionTokenService.getTtl().toSeconds(),
+                user.getId(), user.getUsername(), user.getRole());
+    }
+
+    /**
+     * Logout: drop the session token
+     */
+    public void logout(String token) {
+        sessionTokenService.revoke(token);
+    }
+
+    /**
+     * Resolve the session behind a token (no password hashing involved)
+     */
+    public SessionTokenService.Session currentSession(String token) {
+        return sessionTokenService.authenticate(token);
     }
 }
@@ -0,0 +1,103 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.WaitlistEntry;
+import com.example.onlinedoctorappointment.repository.DoctorRepository;
+import com.example.onlinedoctorappointment.repository.WaitlistRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per-doctor FIFO waitlist.
+ * Patients join instead of polling for free slots; AppointmentService hands
+ * each freed slot to the head of the queue in the cancelling transaction.
+ */
+@Service
+@Timed(value = "service.calls", description = "Service method latency")
+public class WaitlistService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final DoctorRepository doctorRepository;
+
+    public WaitlistService(WaitlistRepository waitlistRepository,
+                           DoctorRepository doctorRepository) {
+        this.waitlistRepository = waitlistRepository;
+        this.doctorRepository = doctorRepository;
+    }
+
+    /**
+     * Patient: join a doctor's waitlist
+     */
+    public WaitlistEntry join(Long doctorId, Long patientId, String note) {
+        if (doctorId == null || patientId == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "doctorId and patientId must not be null"
+            );
+        }
+
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Doctor not found"
+            );
+        }
+
+        if (waitlistRepository.existsByDoctorIdAndPatientId(doctorId, patientId)) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "Patient is already on this doctor's waitlist"
+            );
+        }
+
+        try {
+            return waitlistRepository.save(new WaitlistEntry(doctorId, patientId, note));
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent join by the same patient
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "Patient is already on this doctor's waitlist"
+            );
+        }
+    }
+
+    /**
+     * Patient: leave a waitlist
+     */
+    public void leave(Long entryId) {
+        if (!waitlistRepository.existsById(entryId)) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Waitlist entry not found"
+            );
+        }
+        waitlistRepository.deleteById(entryId);
+    }
+
+    public List<WaitlistEntry> getByDoctor(Long doctorId) {
+        return waitlistRepository.findByDoctorIdOrderByIdAsc(doctorId);
+    }
+
+    public List<WaitlistEntry> getByPatient(Long patientId) {
+        return waitlistRepository.findByPatientIdOrderByIdAsc(patientId);
+    }
+
+    /**
+     * Remove and return the oldest entry for the doctor, skipping the given patient.
+     * Must run inside the caller's transaction while it holds the doctor's lock,
+     * so two freed slots can never go to the same entry.
+     */
+    @Transactional
+    public Optional<WaitlistEntry> takeNext(Long doctorId, Long excludedPatientId) {
+        Optional<WaitlistEntry> next =
+                waitlistRepository.findFirstByDoctorIdAndPatientIdNotOrderByIdAsc(doctorId, excludedPatientId);
+        next.ifPresent(waitlistRepository::delete);
+        return next;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.onlinedoctorappointment.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads for the executors and background loops the application builds itself,
+ * so they follow spring.threads.virtual.enabled like Tomcat and Spring's task executors do.
+ * The build targets Java 17: virtual threads are only used when the flag is on
+ * and the application runs on JDK 21+, otherwise these are named daemon platform threads.
+ */
+@Component
+public class WorkerThreads {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerThreads.class);
+
+    private final boolean virtual;
+
+    public WorkerThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtual = virtualThreads && Runtime.version().feature() >= 21;
+        if (virtualThreads && !virtual) {
+            log.warn("spring.threads.virtual.enabled ignored, requires JDK 21+ (running on {})", Runtime.version());
+        }
+    }
+
+    /**
+     * Factory for a pool: threads are named prefix-N
+     */
+    public ThreadFactory factory(String prefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(prefix + "-").getVirtualThreadFactory();
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Start a single long-running loop under the given name
+     */
+    public Thread start(String name, Runnable task) {
+        Thread thread = virtual
+                ? new VirtualThreadTaskExecutor().getVirtualThreadFactory().newThread(task)
+                : new Thread(task);
+        thread.setName(name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.onlinedoctorappointment;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate prepares on the calling thread while an action runs.
+ * Enable it on a test context with
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.onlinedoctorappointment.SqlCapture
+ */
+public class SqlCapture implements StatementInspector {
+
+    public static final String PROPERTY =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.onlinedoctorappointment.SqlCapture";
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    /**
+     * Every statement prepared by the action, in order
+     */
+    public static List<String> during(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = CAPTURED.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.onlinedoctorappointment.repository;
+
+import com.example.onlinedoctorappointment.SqlCapture;
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with H2's EXPLAIN that the hot repository queries are served by an index.
+ * Each repository method is run once and the SQL Hibernate generated for it is explained,
+ * bound to the same parameter values the method was called with.
+ */
+@SpringBootTest(properties = SqlCapture.PROPERTY)
+class QueryIndexUsageTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusHours(1);
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                query("findByDoctorIdAndAvailableTrue", "idx_time_slots_doctor_available_start",
+                        (slots, appointments) -> slots.findByDoctorIdAndAvailableTrue(1L),
+                        1L),
+                query("findByAvailableTrueAndStartTimeAfter", "idx_time_slots_available_start",
+                        (slots, appointments) -> slots.findByAvailableTrueAndStartTimeAfter(FROM),
+                        FROM),
+                query("findByStatus", "idx_appointments_status",
+                        (slots, appointments) -> appointments.findByStatus(AppointmentStatus.PENDING),
+                        "PENDING"),
+                query("findByStatusIn", "idx_appointments_status",
+                        (slots, appointments) -> appointments.findByStatusIn(
+                                List.of(AppointmentStatus.CANCELLED, AppointmentStatus.REJECTED)),
+                        "CANCELLED", "REJECTED"),
+                query("findByPatientId", "idx_appointments_patient_status",
+                        (slots, appointments) -> appointments.findByPatientId(1L),
+                        1L),
+                query("findReminderWindow", "idx_appointments_status_time",
+                        (slots, appointments) -> appointments.findReminderWindow(
+                                AppointmentStatus.APPROVED, FROM, TO),
+                        "APPROVED", FROM, TO)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryUsesIndex(String method, String expectedIndex,
+                        BiConsumer<TimeSlotRepository, AppointmentRepository> call, Object[] parameters) {
+        List<String> sql = SqlCapture.during(() -> call.accept(timeSlotRepository, appointmentRepository));
+        assertThat(sql).as("statements of %s", method).hasSize(1);
+
+        String generated = sql.get(0);
+        assertThat(generated.chars().filter(c -> c == '?').count())
+                .as("parameters of %s", method)
+                .isEqualTo(parameters.length);
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + generated, String.class, parameters);
+
+        assertThat(plan)
+                .as("plan for %s: %s", method, generated)
+                .containsIgnoringCase(expectedIndex)
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    private static Arguments query(String method, String expectedIndex,
+                                   BiConsumer<TimeSlotRepository, AppointmentRepository> call,
+                                   Object... parameters) {
+        return Arguments.of(method, expectedIndex, call, parameters);
+    }
+}
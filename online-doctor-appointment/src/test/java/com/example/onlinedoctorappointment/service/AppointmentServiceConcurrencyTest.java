@@ -0,0 +1,164 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.repository.AppointmentRepository;
+import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AppointmentServiceConcurrencyTest {
+
+    private static final int SLOTS = 10;
+    private static final int BOOKERS = 300;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * One doctor per slot, so bookers of different slots do not queue on the same doctor lock
+     */
+    @Test
+    void parallelBookersNeverDoubleBookASlot() throws Exception {
+        List<Long> slotIds = slots(9_000L);
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch go = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        for (int i = 0; i < BOOKERS; i++) {
+            long patientId = 10_000L + i;
+            Long slotId = slotIds.get(i % SLOTS);
+            pool.execute(() -> {
+                try {
+                    go.await();
+                    Appointment appointment = new Appointment();
+                    appointment.setPatientId(patientId);
+                    appointment.setTimeSlotId(slotId);
+                    appointmentService.createAppointment(appointment);
+                    booked.incrementAndGet();
+                } catch (ResponseStatusException e) {
+                    if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                        conflicts.incrementAndGet();
+                    } else {
+                        unexpected.add(e);
+                    }
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+
+        go.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(booked.get()).isEqualTo(SLOTS);
+        assertThat(conflicts.get()).isEqualTo(BOOKERS - SLOTS);
+
+        Map<Long, Long> appointmentsPerSlot = appointmentRepository.findAll().stream()
+                .filter(a -> slotIds.contains(a.getTimeSlotId()))
+                .collect(Collectors.groupingBy(Appointment::getTimeSlotId, Collectors.counting()));
+        assertThat(appointmentsPerSlot).hasSize(SLOTS);
+        assertThat(appointmentsPerSlot.values()).containsOnly(1L);
+        assertThat(timeSlotRepository.findAllById(slotIds))
+                .noneMatch(TimeSlot::isAvailable);
+    }
+
+    /**
+     * The versioned update alone, without the doctor lock in front of it:
+     * of many transactions claiming the same slot, exactly one wins
+     */
+    @Test
+    void competingClaimsHaveExactlyOneWinnerPerSlot() throws Exception {
+        List<Long> slotIds = slots(9_020L);
+
+        Map<Long, AtomicInteger> winners = slotIds.stream()
+                .collect(Collectors.toMap(id -> id, id -> new AtomicInteger()));
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch go = new CountDownLatch(1);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        for (int i = 0; i < BOOKERS; i++) {
+            Long slotId = slotIds.get(i % SLOTS);
+            pool.execute(() -> {
+                try {
+                    go.await();
+                    boolean claimed = Boolean.TRUE.equals(transaction.execute(status -> {
+                        TimeSlot slot = timeSlotRepository.findById(slotId).orElseThrow();
+                        if (!slot.isAvailable()) {
+                            return false;
+                        }
+                        slot.setAvailable(false);
+                        timeSlotRepository.flush();
+                        return true;
+                    }));
+                    if (claimed) {
+                        winners.get(slotId).incrementAndGet();
+                    }
+                } catch (ConcurrencyFailureException e) {
+                    // Stale version or lock timeout on the row: lost the race, as in AppointmentService
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+
+        go.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(winners.values()).allMatch(count -> count.get() == 1);
+        assertThat(timeSlotRepository.findAllById(slotIds))
+                .noneMatch(TimeSlot::isAvailable);
+    }
+
+    /**
+     * SLOTS slots, each on its own doctor starting at firstDoctorId
+     */
+    private List<Long> slots(long firstDoctorId) {
+        LocalDateTime start = LocalDateTime.now().plusDays(30);
+        List<Long> slotIds = new ArrayList<>();
+        for (int i = 0; i < SLOTS; i++) {
+            TimeSlot slot = timeSlotRepository.save(new TimeSlot(
+                    firstDoctorId + i, start.plusHours(i), start.plusHours(i).plusMinutes(30)));
+            slotIds.add(slot.getId());
+        }
+        return slotIds;
+    }
+}
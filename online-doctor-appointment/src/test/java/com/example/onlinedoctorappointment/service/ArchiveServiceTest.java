@@ -0,0 +1,106 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.dto.CursorPage;
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.repository.AppointmentArchiveRepository;
+import com.example.onlinedoctorappointment.repository.AppointmentRepository;
+import com.example.onlinedoctorappointment.repository.TimeSlotArchiveRepository;
+import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archives an old cancelled appointment and its slot, then checks they left the hot tables,
+ * kept their ids in the archive, and still show up in the appointment history.
+ * Old approved appointments and the slots they hold are archived too; a late PENDING request
+ * whose slot is already gone can still be cancelled.
+ */
+@SpringBootTest
+class ArchiveServiceTest {
+
+    private static final long DOCTOR_ID = 9_200L;
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentArchiveRepository appointmentArchiveRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private TimeSlotArchiveRepository timeSlotArchiveRepository;
+
+    @Test
+    void oldRowsMoveToArchiveAndStayInHistory() {
+        LocalDateTime start = LocalDateTime.now().minusDays(400);
+        TimeSlot slot = timeSlotService.createSlot(DOCTOR_ID, start, start.plusMinutes(30));
+
+        Appointment appointment = new Appointment(DOCTOR_ID, 30_000L, start, AppointmentStatus.CANCELLED);
+        appointment.setTimeSlotId(slot.getId());
+        Long id = appointmentRepository.save(appointment).getId();
+
+        // An old approved appointment still holds its slot
+        LocalDateTime heldStart = start.plusHours(1);
+        TimeSlot held = timeSlotService.createSlot(DOCTOR_ID, heldStart, heldStart.plusMinutes(30));
+        timeSlotService.occupySlot(held.getId());
+        Appointment approved = new Appointment(DOCTOR_ID, 30_001L, heldStart, AppointmentStatus.APPROVED);
+        approved.setTimeSlotId(held.getId());
+        Long approvedId = appointmentRepository.save(approved).getId();
+
+        // A request on an old slot that has not expired yet stays in the hot table
+        LocalDateTime lateStart = start.plusHours(2);
+        TimeSlot late = timeSlotService.createSlot(DOCTOR_ID, lateStart, lateStart.plusMinutes(30));
+        timeSlotService.occupySlot(late.getId());
+        Appointment pending = new Appointment(DOCTOR_ID, 30_002L, lateStart, AppointmentStatus.PENDING);
+        pending.setTimeSlotId(late.getId());
+        Long pendingId = appointmentRepository.save(pending).getId();
+
+        archiveService.archive();
+
+        assertThat(appointmentRepository.existsById(id)).isFalse();
+        assertThat(appointmentArchiveRepository.findById(id))
+                .hasValueSatisfying(archived -> {
+                    assertThat(archived.getStatus()).isEqualTo(AppointmentStatus.CANCELLED);
+                    assertThat(archived.getArchivedAt()).isNotNull();
+                });
+        assertThat(timeSlotRepository.existsById(slot.getId())).isFalse();
+        assertThat(timeSlotArchiveRepository.existsById(slot.getId())).isTrue();
+        assertThat(timeSlotService.getAvailableSlotsByDoctor(DOCTOR_ID)).isEmpty();
+
+        assertThat(appointmentService.getHistory(CursorPage.encode(id - 1), 1).items())
+                .extracting(Appointment::getId)
+                .containsExactly(id);
+
+        // The archived interval no longer blocks the calendar
+        timeSlotService.createSlot(DOCTOR_ID, start, start.plusMinutes(30));
+
+        // Approved appointments in the past are archived with their slots
+        assertThat(appointmentRepository.existsById(approvedId)).isFalse();
+        assertThat(appointmentArchiveRepository.findById(approvedId))
+                .hasValueSatisfying(archived -> assertThat(archived.getStatus()).isEqualTo(AppointmentStatus.APPROVED));
+        assertThat(timeSlotRepository.existsById(held.getId())).isFalse();
+        assertThat(timeSlotArchiveRepository.existsById(held.getId())).isTrue();
+
+        // The pending request lost its slot to the archive but can still be cancelled
+        assertThat(timeSlotRepository.existsById(late.getId())).isFalse();
+        assertThat(appointmentService.cancelAppointment(pendingId).getStatus()).isEqualTo(AppointmentStatus.CANCELLED);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.SqlCapture;
+import com.example.onlinedoctorappointment.dto.BulkTransitionResult;
+import com.example.onlinedoctorappointment.dto.BulkTransitionResult.Outcome;
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.repository.AppointmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Bulk approve / reject: one outcome per distinct id in request order, only PENDING
+ * appointments change, and all of them are written with a single UPDATE statement.
+ */
+@SpringBootTest(properties = SqlCapture.PROPERTY)
+class BulkTransitionTest {
+
+    private static final long DOCTOR_ID = 9_700L;
+    private static final long MISSING_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Test
+    void mixedIdsGetOneOutcomeEach() {
+        Long pending = appointment(DOCTOR_ID, AppointmentStatus.PENDING);
+        Long approved = appointment(DOCTOR_ID, AppointmentStatus.APPROVED);
+        Long otherDoctor = appointment(DOCTOR_ID + 1, AppointmentStatus.PENDING);
+
+        BulkTransitionResult result = appointmentService.rejectAppointments(
+                List.of(pending, MISSING_ID, approved, otherDoctor));
+
+        assertThat(result.status()).isEqualTo(AppointmentStatus.REJECTED);
+        assertThat(result.updated()).isEqualTo(2);
+        assertThat(result.results())
+                .extracting(Outcome::id, Outcome::success, Outcome::error)
+                .containsExactly(
+                        tuple(pending, true, null),
+                        tuple(MISSING_ID, false, "Appointment not found"),
+                        tuple(approved, false, "Only PENDING appointments can be rejected"),
+                        tuple(otherDoctor, true, null));
+        assertStatus(pending, AppointmentStatus.REJECTED);
+        assertStatus(approved, AppointmentStatus.APPROVED);
+        assertStatus(otherDoctor, AppointmentStatus.REJECTED);
+    }
+
+    @Test
+    void duplicateIdsAreTransitionedOnce() {
+        Long first = appointment(DOCTOR_ID, AppointmentStatus.PENDING);
+        Long second = appointment(DOCTOR_ID, AppointmentStatus.PENDING);
+
+        BulkTransitionResult result = appointmentService.approveAppointments(List.of(first, second, first));
+
+        assertThat(result.updated()).isEqualTo(2);
+        assertThat(result.results())
+                .extracting(Outcome::id, Outcome::success)
+                .containsExactly(tuple(first, true), tuple(second, true));
+        assertStatus(first, AppointmentStatus.APPROVED);
+        assertStatus(second, AppointmentStatus.APPROVED);
+    }
+
+    @Test
+    void tooManyIdsAreRejected() {
+        List<Long> ids = LongStream.rangeClosed(1, AppointmentService.MAX_BULK_TRANSITION + 1)
+                .boxed()
+                .toList();
+
+        assertThatThrownBy(() -> appointmentService.approveAppointments(ids))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void eligibleAppointmentsAreUpdatedWithOneStatement() {
+        List<Long> ids = List.of(
+                appointment(DOCTOR_ID + 2, AppointmentStatus.PENDING),
+                appointment(DOCTOR_ID + 2, AppointmentStatus.PENDING),
+                appointment(DOCTOR_ID + 3, AppointmentStatus.PENDING),
+                appointment(DOCTOR_ID + 3, AppointmentStatus.CANCELLED));
+
+        List<String> sql = SqlCapture.during(() -> appointmentService.approveAppointments(ids));
+
+        assertThat(sql)
+                .filteredOn(statement -> statement.toLowerCase().startsWith("update appointments"))
+                .hasSize(1);
+        assertThat(appointmentRepository.findAllById(ids))
+                .extracting(Appointment::getStatus)
+                .containsExactlyInAnyOrder(AppointmentStatus.APPROVED, AppointmentStatus.APPROVED,
+                        AppointmentStatus.APPROVED, AppointmentStatus.CANCELLED);
+    }
+
+    private Long appointment(long doctorId, AppointmentStatus status) {
+        return appointmentRepository.save(new Appointment(
+                doctorId, 70_000L, LocalDateTime.now().plusDays(20), status)).getId();
+    }
+
+    private void assertStatus(Long id, AppointmentStatus expected) {
+        assertThat(appointmentRepository.findById(id))
+                .get()
+                .extracting(Appointment::getStatus)
+                .isEqualTo(expected);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.onlinedoctorappointment.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHasherTest {
+
+    private final List<PasswordHasher> hashers = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        hashers.forEach(PasswordHasher::shutdown);
+    }
+
+    @Test
+    void hashRoundTrip() {
+        PasswordHasher hasher = hasher(new WorkerThreads(false), 2, 8);
+
+        String hash = hasher.hash("s3cret");
+
+        assertThat(hash).isNotEqualTo("s3cret").startsWith("$2a$04$");
+        assertThat(hasher.hash("s3cret")).as("salted").isNotEqualTo(hash);
+        assertThat(hasher.matches("s3cret", hash)).isTrue();
+        assertThat(hasher.matches("wrong", hash)).isFalse();
+    }
+
+    /**
+     * One hashing thread held on a latch and a queue of one: of five concurrent calls
+     * two are accepted, the other three get 503 right away instead of waiting
+     */
+    @Test
+    void fullQueueAnswers503() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        WorkerThreads held = new WorkerThreads(false) {
+            @Override
+            public ThreadFactory factory(String prefix) {
+                ThreadFactory threads = super.factory(prefix);
+                return task -> threads.newThread(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    task.run();
+                });
+            }
+        };
+        PasswordHasher hasher = hasher(held, 1, 1);
+
+        CountDownLatch rejected = new CountDownLatch(3);
+        ExecutorService callers = Executors.newFixedThreadPool(5);
+        List<Future<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String password = "password-" + i;
+            calls.add(callers.submit(() -> {
+                try {
+                    return hasher.hash(password);
+                } catch (ResponseStatusException e) {
+                    if (e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
+                        rejected.countDown();
+                    }
+                    throw e;
+                }
+            }));
+        }
+
+        assertThat(rejected.await(10, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        callers.shutdown();
+        assertThat(callers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        int hashed = 0;
+        for (Future<String> call : calls) {
+            try {
+                call.get();
+                hashed++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(ResponseStatusException.class);
+            }
+        }
+        assertThat(hashed).isEqualTo(2);
+    }
+
+    private PasswordHasher hasher(WorkerThreads workerThreads, int threads, int queueSize) {
+        // Lowest BCrypt cost, so the test does not spend its time hashing
+        PasswordHasher hasher = new PasswordHasher(workerThreads, 4, threads, queueSize, Duration.ofSeconds(30));
+        hashers.add(hasher);
+        return hasher;
+    }
+}
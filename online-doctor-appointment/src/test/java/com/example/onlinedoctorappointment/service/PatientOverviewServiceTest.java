@@ -0,0 +1,65 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.dto.PatientOverview;
+import com.example.onlinedoctorappointment.dto.PatientOverview.UpcomingAppointment;
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Loads a patient's overview, then checks that later transitions show up without a reload
+ */
+@SpringBootTest
+class PatientOverviewServiceTest {
+
+    private static final long DOCTOR_ID = 9_300L;
+    private static final long PATIENT_ID = 40_000L;
+
+    @Autowired
+    private PatientOverviewService patientOverviewService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Test
+    void overviewFollowsTransitions() {
+        LocalDateTime start = LocalDateTime.now().plusDays(30);
+        Long later = book(start.plusHours(2));
+        Long earlier = book(start);
+
+        PatientOverview overview = patientOverviewService.getOverview(PATIENT_ID);
+        assertThat(overview.upcoming())
+                .extracting(UpcomingAppointment::appointmentId)
+                .containsExactly(earlier, later);
+        assertThat(overview.counts()).containsEntry(AppointmentStatus.PENDING, 2L);
+
+        appointmentService.approveAppointment(later);
+        appointmentService.cancelAppointment(earlier);
+
+        overview = patientOverviewService.getOverview(PATIENT_ID);
+        assertThat(overview.upcoming())
+                .extracting(UpcomingAppointment::appointmentId, UpcomingAppointment::status)
+                .containsExactly(tuple(later, AppointmentStatus.APPROVED));
+        assertThat(overview.counts())
+                .containsEntry(AppointmentStatus.PENDING, 0L)
+                .containsEntry(AppointmentStatus.APPROVED, 1L)
+                .containsEntry(AppointmentStatus.CANCELLED, 1L);
+    }
+
+    private Long book(LocalDateTime start) {
+        Appointment request = new Appointment();
+        request.setPatientId(PATIENT_ID);
+        request.setTimeSlotId(timeSlotService.createSlot(DOCTOR_ID, start, start.plusMinutes(30)).getId());
+        return appointmentService.createAppointment(request).getId();
+    }
+}
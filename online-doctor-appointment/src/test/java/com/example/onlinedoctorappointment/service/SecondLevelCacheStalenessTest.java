@@ -0,0 +1,136 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.repository.AppointmentRepository;
+import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walks an appointment through every transition with the second-level cache warm
+ * before each step, and checks that the next cached read sees the committed state.
+ * Bookings and bulk transitions must also leave the other cached entries in place.
+ */
+@SpringBootTest
+class SecondLevelCacheStalenessTest {
+
+    private static final long DOCTOR_ID = 9_100L;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void statusTransitionsAreNeverServedStale() {
+        LocalDateTime start = LocalDateTime.now().plusDays(60);
+        Long firstSlot = timeSlotRepository.save(
+                new TimeSlot(DOCTOR_ID, start, start.plusMinutes(30))).getId();
+        Long secondSlot = timeSlotRepository.save(
+                new TimeSlot(DOCTOR_ID, start.plusHours(1), start.plusHours(1).plusMinutes(30))).getId();
+        assertSlot(firstSlot, true);
+        assertSlot(secondSlot, true);
+
+        Appointment request = new Appointment();
+        request.setPatientId(20_000L);
+        request.setTimeSlotId(firstSlot);
+        Long id = appointmentService.createAppointment(request).getId();
+        assertAppointment(id, AppointmentStatus.PENDING);
+        assertSlot(firstSlot, false);
+
+        appointmentService.approveAppointment(id);
+        assertAppointment(id, AppointmentStatus.APPROVED);
+
+        Long movedId = appointmentService.rescheduleAppointment(id, secondSlot).getId();
+        assertAppointment(id, AppointmentStatus.CANCELLED);
+        assertAppointment(movedId, AppointmentStatus.PENDING);
+        assertSlot(firstSlot, true);
+        assertSlot(secondSlot, false);
+
+        appointmentService.rejectAppointment(movedId);
+        assertAppointment(movedId, AppointmentStatus.REJECTED);
+    }
+
+    @Test
+    void bookingsAndBulkTransitionsKeepOtherEntriesCached() {
+        LocalDateTime start = LocalDateTime.now().plusDays(61);
+        Long bystanderSlot = timeSlotRepository.save(
+                new TimeSlot(DOCTOR_ID, start, start.plusMinutes(30))).getId();
+        Long bookedSlot = timeSlotRepository.save(
+                new TimeSlot(DOCTOR_ID, start.plusHours(1), start.plusHours(1).plusMinutes(30))).getId();
+        Long bystander = appointmentRepository.save(new Appointment(
+                DOCTOR_ID, 20_001L, start.minusDays(1), AppointmentStatus.APPROVED)).getId();
+        assertSlot(bystanderSlot, true);
+        assertAppointment(bystander, AppointmentStatus.APPROVED);
+
+        Appointment request = new Appointment();
+        request.setPatientId(20_002L);
+        request.setTimeSlotId(bookedSlot);
+        Long booked = appointmentService.createAppointment(request).getId();
+
+        // The claim updated the booked slot's entry in place; nothing else was evicted
+        assertCached(TimeSlot.class, bystanderSlot, bookedSlot);
+        assertCached(Appointment.class, bystander);
+        assertSlot(bookedSlot, false);
+
+        appointmentService.approveAppointments(List.of(booked));
+
+        assertCached(TimeSlot.class, bystanderSlot, bookedSlot);
+        assertCached(Appointment.class, bystander, booked);
+        assertAppointment(booked, AppointmentStatus.APPROVED);
+    }
+
+    private void assertCached(Class<?> entity, Long... ids) {
+        for (Long id : ids) {
+            assertThat(entityManagerFactory.getCache().contains(entity, id))
+                    .as("%s %d cached", entity.getSimpleName(), id)
+                    .isTrue();
+        }
+    }
+
+    /**
+     * Read (possibly from the cache warmed by the previous step), compare with the table,
+     * and make sure the entry is cached again for the next step
+     */
+    private void assertAppointment(Long id, AppointmentStatus expected) {
+        assertThat(appointmentRepository.findById(id))
+                .get()
+                .extracting(Appointment::getStatus)
+                .isEqualTo(expected);
+        assertThat(jdbcTemplate.queryForObject(
+                "select status from appointments where id = ?", String.class, id))
+                .isEqualTo(expected.name());
+        assertThat(entityManagerFactory.getCache().contains(Appointment.class, id)).isTrue();
+    }
+
+    private void assertSlot(Long id, boolean available) {
+        assertThat(timeSlotRepository.findById(id))
+                .get()
+                .extracting(TimeSlot::isAvailable)
+                .isEqualTo(available);
+        assertThat(jdbcTemplate.queryForObject(
+                "select available from time_slots where id = ?", Boolean.class, id))
+                .isEqualTo(available);
+        assertThat(entityManagerFactory.getCache().contains(TimeSlot.class, id)).isTrue();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.SqlCapture;
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Claiming slots costs exactly one UPDATE of time_slots: the versioned claim
+ * (one JDBC batch for several slots), with no second write of the same rows at commit.
+ */
+@SpringBootTest(properties = SqlCapture.PROPERTY)
+class SlotClaimStatementTest {
+
+    private static final long DOCTOR_ID = 9_500L;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Test
+    void bookingASlotUpdatesItOnce() {
+        Long slotId = slots(LocalDateTime.of(2031, 5, 5, 9, 0), 1).get(0);
+        Appointment appointment = new Appointment();
+        appointment.setPatientId(50_001L);
+        appointment.setTimeSlotId(slotId);
+
+        List<String> sql = SqlCapture.during(() -> appointmentService.createAppointment(appointment));
+
+        assertThat(slotUpdates(sql)).hasSize(1);
+        assertThat(timeSlotRepository.findById(slotId)).get()
+                .extracting(TimeSlot::isAvailable)
+                .isEqualTo(false);
+    }
+
+    @Test
+    void bookingSeveralSlotsUpdatesThemOnce() {
+        List<Long> slotIds = slots(LocalDateTime.of(2031, 5, 6, 9, 0), 3);
+
+        List<String> sql = SqlCapture.during(
+                () -> appointmentService.createAppointments(50_000L, List.copyOf(slotIds), null));
+
+        assertThat(slotUpdates(sql)).hasSize(1);
+        assertThat(timeSlotRepository.findAllById(slotIds)).noneMatch(TimeSlot::isAvailable);
+    }
+
+    @Test
+    void occupyingASlotUpdatesItOnce() {
+        Long slotId = slots(LocalDateTime.of(2031, 5, 7, 9, 0), 1).get(0);
+
+        List<String> sql = SqlCapture.during(() -> timeSlotService.occupySlot(slotId));
+
+        assertThat(slotUpdates(sql)).hasSize(1);
+        assertThat(timeSlotRepository.findById(slotId)).get()
+                .extracting(TimeSlot::isAvailable)
+                .isEqualTo(false);
+    }
+
+    private List<Long> slots(LocalDateTime start, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(timeSlotRepository.save(new TimeSlot(
+                    DOCTOR_ID, start.plusHours(i), start.plusHours(i).plusMinutes(30))).getId());
+        }
+        return ids;
+    }
+
+    private static List<String> slotUpdates(List<String> sql) {
+        return sql.stream()
+                .filter(statement -> statement.toLowerCase().startsWith("update time_slots"))
+                .toList();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Overlapping slots of one doctor are rejected with 409, back-to-back slots are not,
+ * and a reservation only outlives its transaction if that transaction commits.
+ * A slot created with a nanosecond start is freed by removing it with the start read back
+ * from the database (microseconds), so the same interval can be reserved again.
+ */
+@SpringBootTest
+class SlotOverlapGuardTest {
+
+    private static final long DOCTOR_ID = 9_400L;
+
+    @Autowired
+    private SlotOverlapGuard overlapGuard;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void overlappingSlotIsRejected() {
+        long doctorId = DOCTOR_ID + 1;
+        LocalDateTime start = LocalDateTime.of(2031, 3, 5, 9, 0);
+        timeSlotService.createSlot(doctorId, start, start.plusMinutes(30));
+
+        assertThatThrownBy(() -> timeSlotService.createSlot(doctorId, start.plusMinutes(15), start.plusMinutes(45)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThatThrownBy(() -> timeSlotService.createSlot(doctorId, start.minusMinutes(10), start.plusMinutes(10)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        // Another doctor's calendar is unaffected
+        timeSlotService.createSlot(doctorId + 1, start.plusMinutes(15), start.plusMinutes(45));
+    }
+
+    @Test
+    void adjacentSlotsAreAccepted() {
+        long doctorId = DOCTOR_ID + 3;
+        LocalDateTime start = LocalDateTime.of(2031, 3, 6, 9, 0);
+        timeSlotService.createSlot(doctorId, start, start.plusMinutes(30));
+
+        // end == start on either side
+        timeSlotService.createSlot(doctorId, start.plusMinutes(30), start.plusMinutes(60));
+        timeSlotService.createSlot(doctorId, start.minusMinutes(30), start);
+
+        assertThat(timeSlotService.getAvailableSlotsByDoctor(doctorId)).hasSize(3);
+    }
+
+    @Test
+    void rolledBackReservationIsUndone() {
+        long doctorId = DOCTOR_ID + 4;
+        LocalDateTime start = LocalDateTime.of(2031, 3, 7, 9, 0);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            timeSlotService.createSlot(doctorId, start, start.plusMinutes(30));
+            status.setRollbackOnly();
+        });
+
+        assertThat(timeSlotService.getAvailableSlotsByDoctor(doctorId)).isEmpty();
+        timeSlotService.createSlot(doctorId, start, start.plusMinutes(30));
+    }
+
+    @Test
+    void removingByStoredStartFreesNanosecondReservation() {
+        LocalDateTime start = LocalDateTime.of(2031, 3, 4, 9, 0, 0, 123_456_789);
+        TimeSlot slot = timeSlotService.createSlot(DOCTOR_ID, start, start.plusMinutes(30));
+
+        LocalDateTime stored = timeSlotRepository.findAllIntervals().stream()
+                .filter(interval -> interval.getDoctorId() == DOCTOR_ID)
+                .findFirst()
+                .orElseThrow()
+                .getStartTime();
+        assertThat(stored.getNano()).isEqualTo(123_456_000);
+
+        timeSlotRepository.deleteById(slot.getId());
+        overlapGuard.slotRemoved(DOCTOR_ID, stored);
+
+        TimeSlot again = timeSlotService.createSlot(DOCTOR_ID, start, start.plusMinutes(30));
+        assertThat(again.getStartTime()).isEqualTo(stored);
+    }
+}
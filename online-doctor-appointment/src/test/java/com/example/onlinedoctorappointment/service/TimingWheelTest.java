@@ -0,0 +1,37 @@
+package com.example.onlinedoctorappointment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void timersOnEveryLevelFireInOrderAndNotEarly() throws InterruptedException {
+        long start = System.currentTimeMillis();
+        // 10 ms ticks, 4 buckets: level 0 spans 40 ms, level 1 160 ms, level 2 640 ms
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, start);
+
+        assertThat(wheel.add(new TimingWheel.Timer<>("level2", start + 300))).isTrue();
+        assertThat(wheel.add(new TimingWheel.Timer<>("level0", start + 25))).isTrue();
+        assertThat(wheel.add(new TimingWheel.Timer<>("level1", start + 100))).isTrue();
+        assertThat(wheel.add(new TimingWheel.Timer<>("due", start - 1))).isFalse();
+
+        List<String> fired = new ArrayList<>();
+        List<Long> lateness = new ArrayList<>();
+        long deadline = start + 2_000;
+        while (fired.size() < 3 && System.currentTimeMillis() < deadline) {
+            wheel.advance(50, timer -> {
+                fired.add(timer.payload());
+                lateness.add(System.currentTimeMillis() - timer.expiresAtMillis());
+            });
+        }
+
+        assertThat(fired).containsExactly("level0", "level1", "level2");
+        // A timer fires at the start of its tick, so at most one tick early
+        assertThat(lateness).allMatch(ms -> ms >= -10);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.event.AppointmentTransitionEvent;
+import com.example.onlinedoctorappointment.event.LoggedTransition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransitionLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsSurviveRollingAndRestart() throws Exception {
+        // 81 byte records: a 256 byte segment holds three, so five roll over into a second file
+        TransitionLog log = open();
+        for (long id = 1; id <= 5; id++) {
+            log.onTransition(event(id, null, AppointmentStatus.PENDING));
+        }
+        awaitDurable(log, 5);
+        log.stop();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.count()).isEqualTo(2);
+        }
+
+        TransitionLog reopened = open();
+        reopened.onTransition(event(1, AppointmentStatus.PENDING, AppointmentStatus.APPROVED));
+        awaitDurable(reopened, 6);
+
+        List<LoggedTransition> all = new ArrayList<>();
+        assertThat(reopened.replay(0, all::add)).isEqualTo(6);
+        assertThat(all).extracting(LoggedTransition::sequence).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(all.get(5).event()).isEqualTo(event(1, AppointmentStatus.PENDING, AppointmentStatus.APPROVED));
+
+        assertThat(reopened.read(3, 2)).extracting(LoggedTransition::sequence).containsExactly(4L, 5L);
+        reopened.stop();
+    }
+
+    private TransitionLog open() throws Exception {
+        TransitionLog log = new TransitionLog(new SimpleMeterRegistry(), new WorkerThreads(false), dir, DataSize.ofBytes(256), 16);
+        log.start();
+        return log;
+    }
+
+    private static void awaitDurable(TransitionLog log, long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (log.durableSequence() < sequence && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(log.durableSequence()).isEqualTo(sequence);
+    }
+
+    private static AppointmentTransitionEvent event(long id, AppointmentStatus from, AppointmentStatus to) {
+        return new AppointmentTransitionEvent(id, 100 + id, 7L, null,
+                LocalDateTime.of(2030, 1, 2, 9, 30), from, to, Instant.ofEpochSecond(1_900_000_000L, 5));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.dto.LoginResponse;
+import com.example.onlinedoctorappointment.entity.User;
+import com.example.onlinedoctorappointment.entity.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login hashes once and hands out a session token; /api/users/me answers from the token
+ * alone and 401s once it is revoked or expired. Unknown users and wrong passwords get 401.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void loginIssuesATokenUntilLogout() throws Exception {
+        User user = userService.register("user-service-test-alice", "s3cret", UserRole.PATIENT);
+        assertThat(user.getPassword()).isNotEqualTo("s3cret");
+
+        LoginResponse login = userService.login("user-service-test-alice", "s3cret");
+        String authorization = "Bearer " + login.token();
+
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(user.getId()))
+                .andExpect(jsonPath("$.role").value("PATIENT"));
+
+        mockMvc.perform(post("/api/users/logout").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void unknownTokenIsRejected() throws Exception {
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer no-such-session"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void wrongCredentialsAreRejected() {
+        userService.register("user-service-test-bob", "s3cret", UserRole.DOCTOR);
+
+        assertUnauthorized(() -> userService.login("user-service-test-bob", "wrong"));
+        assertUnauthorized(() -> userService.login("user-service-test-nobody", "s3cret"));
+    }
+
+    @Test
+    void idleSessionExpires() throws InterruptedException {
+        SessionTokenService sessions = new SessionTokenService(Duration.ofMillis(50), 10);
+        User user = new User("user-service-test-carol", "hash", UserRole.ADMIN);
+        String token = sessions.issue(user);
+        assertThat(sessions.authenticate(token).username()).isEqualTo("user-service-test-carol");
+
+        Thread.sleep(200);
+
+        assertUnauthorized(() -> sessions.authenticate(token));
+    }
+
+    private static void assertUnauthorized(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+    }
+}
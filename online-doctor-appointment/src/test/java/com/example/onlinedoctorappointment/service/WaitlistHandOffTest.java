@@ -0,0 +1,152 @@
+package com.example.onlinedoctorappointment.service;
+
+import com.example.onlinedoctorappointment.entity.Appointment;
+import com.example.onlinedoctorappointment.entity.AppointmentStatus;
+import com.example.onlinedoctorappointment.entity.Doctor;
+import com.example.onlinedoctorappointment.entity.TimeSlot;
+import com.example.onlinedoctorappointment.entity.WaitlistEntry;
+import com.example.onlinedoctorappointment.repository.DoctorRepository;
+import com.example.onlinedoctorappointment.repository.TimeSlotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A cancelled future slot goes to the oldest waitlisted patient of the doctor as a new
+ * PENDING appointment, skipping the patient who freed it; a past slot is released instead.
+ * Every test uses its own doctor, so waitlists do not leak between tests.
+ */
+@SpringBootTest
+class WaitlistHandOffTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Test
+    void cancelledSlotGoesToTheNextEntry() {
+        Long doctorId = doctor();
+        TimeSlot slot = slot(doctorId, LocalDateTime.now().plusDays(10));
+        Long booked = book(60_000L, slot);
+        waitlistService.join(doctorId, 60_001L, "any time");
+
+        appointmentService.cancelAppointment(booked);
+
+        assertThat(appointmentService.getAppointmentsByPatient(60_001L))
+                .singleElement()
+                .satisfies(appointment -> {
+                    assertThat(appointment.getTimeSlotId()).isEqualTo(slot.getId());
+                    assertThat(appointment.getStatus()).isEqualTo(AppointmentStatus.PENDING);
+                    assertThat(appointment.getNote()).isEqualTo("any time");
+                });
+        assertThat(timeSlotRepository.findById(slot.getId())).get()
+                .extracting(TimeSlot::isAvailable)
+                .isEqualTo(false);
+        assertThat(waitlistService.getByDoctor(doctorId)).isEmpty();
+    }
+
+    @Test
+    void entriesAreServedInJoinOrder() {
+        Long doctorId = doctor();
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        Long first = book(60_010L, slot(doctorId, start));
+        TimeSlot secondSlot = slot(doctorId, start.plusHours(1));
+        Long second = book(60_011L, secondSlot);
+        waitlistService.join(doctorId, 60_012L, null);
+        waitlistService.join(doctorId, 60_013L, null);
+        waitlistService.join(doctorId, 60_014L, null);
+
+        appointmentService.cancelAppointment(second);
+        appointmentService.cancelAppointment(first);
+
+        assertThat(appointmentService.getAppointmentsByPatient(60_012L))
+                .singleElement()
+                .extracting(Appointment::getTimeSlotId)
+                .isEqualTo(secondSlot.getId());
+        assertThat(appointmentService.getAppointmentsByPatient(60_013L)).hasSize(1);
+        assertThat(waitlistService.getByDoctor(doctorId))
+                .extracting(WaitlistEntry::getPatientId)
+                .containsExactly(60_014L);
+    }
+
+    @Test
+    void patientFreeingTheSlotIsSkipped() {
+        Long doctorId = doctor();
+        TimeSlot slot = slot(doctorId, LocalDateTime.now().plusDays(10));
+        waitlistService.join(doctorId, 60_020L, null);
+        waitlistService.join(doctorId, 60_021L, null);
+        Long booked = book(60_020L, slot);
+
+        appointmentService.cancelAppointment(booked);
+
+        assertThat(appointmentService.getAppointmentsByPatient(60_021L))
+                .singleElement()
+                .extracting(Appointment::getTimeSlotId)
+                .isEqualTo(slot.getId());
+        assertThat(waitlistService.getByDoctor(doctorId))
+                .extracting(WaitlistEntry::getPatientId)
+                .containsExactly(60_020L);
+    }
+
+    @Test
+    void pastSlotIsReleasedNotHandedOff() {
+        Long doctorId = doctor();
+        TimeSlot slot = slot(doctorId, LocalDateTime.now().minusDays(1));
+        Long booked = book(60_030L, slot);
+        waitlistService.join(doctorId, 60_031L, null);
+
+        appointmentService.cancelAppointment(booked);
+
+        assertThat(appointmentService.getAppointmentsByPatient(60_031L)).isEmpty();
+        assertThat(timeSlotRepository.findById(slot.getId())).get()
+                .extracting(TimeSlot::isAvailable)
+                .isEqualTo(true);
+        assertThat(waitlistService.getByDoctor(doctorId))
+                .extracting(WaitlistEntry::getPatientId)
+                .containsExactly(60_031L);
+    }
+
+    @Test
+    void joiningTwiceIsRejected() {
+        Long doctorId = doctor();
+        waitlistService.join(doctorId, 60_040L, null);
+
+        assertThatThrownBy(() -> waitlistService.join(doctorId, 60_040L, "again"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(waitlistService.getByDoctor(doctorId)).hasSize(1);
+    }
+
+    private Long doctor() {
+        return doctorRepository.save(new Doctor("Dr. Waitlist", "General", null)).getId();
+    }
+
+    private TimeSlot slot(Long doctorId, LocalDateTime start) {
+        return timeSlotService.createSlot(doctorId, start, start.plusMinutes(30));
+    }
+
+    private Long book(Long patientId, TimeSlot slot) {
+        Appointment request = new Appointment();
+        request.setPatientId(patientId);
+        request.setTimeSlotId(slot.getId());
+        return appointmentService.createAppointment(request).getId();
+    }
+}